@@ -1,10 +1,17 @@
 package com.qkart.controller;
 
 import com.qkart.dto.AlbumDTO;
+import com.qkart.dto.AlbumLikeStatus;
+import com.qkart.dto.AlbumLikeStatusRequest;
 import com.qkart.dto.SongDTO;
+import com.qkart.dto.SongPlaysRequest;
+import com.qkart.security.AuthenticatedUser;
 import com.qkart.service.AlbumService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -36,6 +43,12 @@ public class AlbumController {
         return ResponseEntity.ok(albumService.getTopAlbums());
     }
 
+    @GetMapping("/trending")
+    public ResponseEntity<List<AlbumDTO>> getTrendingAlbums(@RequestParam(defaultValue = "day") String window,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(albumService.getTrendingAlbums(window, limit));
+    }
+
     @GetMapping("/genre/{genre}")
     public ResponseEntity<List<AlbumDTO>> getAlbumsByGenre(@PathVariable String genre) {
         return ResponseEntity.ok(albumService.getAlbumsByGenre(genre));
@@ -51,6 +64,24 @@ public class AlbumController {
         return ResponseEntity.ok(albumService.getAllGenres());
     }
 
+    @PostMapping("/{id}/like")
+    public ResponseEntity<AlbumLikeStatus> likeAlbum(@PathVariable Long id,
+                                                     @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(albumService.likeAlbum(id, getUserId(userDetails)));
+    }
+
+    @DeleteMapping("/{id}/like")
+    public ResponseEntity<AlbumLikeStatus> unlikeAlbum(@PathVariable Long id,
+                                                       @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(albumService.unlikeAlbum(id, getUserId(userDetails)));
+    }
+
+    @PostMapping("/likes/status")
+    public ResponseEntity<List<AlbumLikeStatus>> getLikeStatuses(@Valid @RequestBody AlbumLikeStatusRequest request,
+                                                                 @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(albumService.getLikeStatuses(request.getAlbumIds(), getUserId(userDetails)));
+    }
+
     @GetMapping("/{albumId}/songs")
     public ResponseEntity<List<SongDTO>> getSongsByAlbum(@PathVariable Long albumId) {
         return ResponseEntity.ok(albumService.getSongsByAlbumId(albumId));
@@ -61,8 +92,30 @@ public class AlbumController {
         return ResponseEntity.ok(albumService.getTopSongs());
     }
 
+    @GetMapping("/songs/trending")
+    public ResponseEntity<List<SongDTO>> getTrendingSongs(@RequestParam(defaultValue = "day") String window,
+                                                          @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(albumService.getTrendingSongs(window, limit));
+    }
+
+    @PostMapping("/songs/{id}/play")
+    public ResponseEntity<Void> recordPlay(@PathVariable Long id) {
+        albumService.recordPlay(id);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/songs/plays")
+    public ResponseEntity<Void> recordPlays(@Valid @RequestBody SongPlaysRequest request) {
+        albumService.recordPlays(request.getSongIds());
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping("/songs/search")
     public ResponseEntity<List<SongDTO>> searchSongs(@RequestParam String q) {
         return ResponseEntity.ok(albumService.searchSongs(q));
     }
+
+    private Long getUserId(UserDetails userDetails) {
+        return ((AuthenticatedUser) userDetails).getId();
+    }
 }
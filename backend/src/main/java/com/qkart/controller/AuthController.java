@@ -4,11 +4,16 @@ import com.qkart.dto.auth.AuthResponse;
 import com.qkart.dto.auth.LoginRequest;
 import com.qkart.dto.auth.RefreshTokenRequest;
 import com.qkart.dto.auth.RegisterRequest;
+import com.qkart.exception.UnauthorizedException;
+import com.qkart.security.AuthenticatedUser;
+import com.qkart.security.LoginThrottle;
 import com.qkart.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -17,15 +22,20 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
+        loginThrottle.checkRegister(httpRequest.getRemoteAddr());
         AuthResponse response = authService.register(request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        loginThrottle.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
@@ -41,4 +51,13 @@ public class AuthController {
         authService.logout(request.getRefreshToken());
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            throw new UnauthorizedException("Authentication required");
+        }
+        authService.logoutAll(user.getId());
+        return ResponseEntity.noContent().build();
+    }
 }
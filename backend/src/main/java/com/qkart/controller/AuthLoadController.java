@@ -0,0 +1,27 @@
+package com.qkart.controller;
+
+import com.qkart.dto.AuthLoadReport;
+import com.qkart.security.LoginThrottle;
+import com.qkart.security.OffloadedPasswordEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/auth/load")
+@RequiredArgsConstructor
+public class AuthLoadController {
+
+    private final OffloadedPasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+
+    @GetMapping
+    public ResponseEntity<AuthLoadReport> getReport() {
+        return ResponseEntity.ok(AuthLoadReport.builder()
+                .hashing(passwordEncoder.getReport())
+                .throttle(loginThrottle.getReport())
+                .build());
+    }
+}
@@ -0,0 +1,24 @@
+package com.qkart.controller;
+
+import com.qkart.dto.CatalogSearchResponse;
+import com.qkart.service.CatalogSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class CatalogSearchController {
+
+    private final CatalogSearchService catalogSearchService;
+
+    @GetMapping
+    public ResponseEntity<CatalogSearchResponse> search(@RequestParam String q,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        Authentication authentication) {
+        // Anonymous callers have no Authentication here and only get product results
+        return ResponseEntity.ok(catalogSearchService.search(q, limit, authentication != null));
+    }
+}
@@ -29,6 +29,11 @@ public class CouponController {
         return ResponseEntity.ok(couponService.getActiveCoupons());
     }
 
+    @GetMapping("/best")
+    public ResponseEntity<BestCouponsResponse> getBestCoupons(@RequestParam Long userId) {
+        return ResponseEntity.ok(couponService.getBestCoupons(userId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CouponDTO> getCouponById(@PathVariable Long id) {
         return ResponseEntity.ok(couponService.getCouponById(id));
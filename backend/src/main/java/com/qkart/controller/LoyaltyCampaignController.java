@@ -0,0 +1,54 @@
+package com.qkart.controller;
+
+import com.qkart.dto.CreateLoyaltyCampaignRequest;
+import com.qkart.dto.LoyaltyCampaignDTO;
+import com.qkart.job.LoyaltyCampaignJob;
+import com.qkart.model.LoyaltyCampaign;
+import com.qkart.service.LoyaltyCampaignService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/loyalty/campaigns")
+@RequiredArgsConstructor
+public class LoyaltyCampaignController {
+
+    private final LoyaltyCampaignService loyaltyCampaignService;
+    private final LoyaltyCampaignJob loyaltyCampaignJob;
+
+    @PostMapping
+    public ResponseEntity<LoyaltyCampaignDTO> createCampaign(
+            @Valid @RequestBody CreateLoyaltyCampaignRequest request) {
+        LoyaltyCampaign campaign = loyaltyCampaignService.createCampaign(request);
+        loyaltyCampaignJob.submit(campaign.getId());
+        return new ResponseEntity<>(LoyaltyCampaignDTO.fromEntity(campaign), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<LoyaltyCampaignDTO>> getCampaigns() {
+        return ResponseEntity.ok(loyaltyCampaignService.getCampaigns());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<LoyaltyCampaignDTO> getCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(LoyaltyCampaignDTO.fromEntity(loyaltyCampaignService.getCampaign(id)));
+    }
+
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<LoyaltyCampaignDTO> pauseCampaign(@PathVariable Long id) {
+        LoyaltyCampaign campaign = loyaltyCampaignService.pause(id);
+        return ResponseEntity.ok(LoyaltyCampaignDTO.fromEntity(campaign));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<LoyaltyCampaignDTO> resumeCampaign(@PathVariable Long id) {
+        LoyaltyCampaign campaign = loyaltyCampaignService.resume(id);
+        loyaltyCampaignJob.submit(id);
+        return new ResponseEntity<>(LoyaltyCampaignDTO.fromEntity(campaign), HttpStatus.ACCEPTED);
+    }
+}
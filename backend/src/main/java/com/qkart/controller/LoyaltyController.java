@@ -2,17 +2,21 @@ package com.qkart.controller;
 
 import com.qkart.dto.LoyaltyAccountDTO;
 import com.qkart.dto.PointsTransactionDTO;
+import com.qkart.dto.PointsTransactionHistoryResponse;
+import com.qkart.security.AuthenticatedUser;
 import com.qkart.service.LoyaltyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Map;
 
 @RestController
@@ -21,7 +25,8 @@ import java.util.Map;
 public class LoyaltyController {
 
     private final LoyaltyService loyaltyService;
-    private final com.qkart.repository.UserRepository userRepository;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     @GetMapping("/account")
     public ResponseEntity<LoyaltyAccountDTO> getAccount(@AuthenticationPrincipal UserDetails userDetails) {
@@ -39,6 +44,17 @@ public class LoyaltyController {
         return ResponseEntity.ok(loyaltyService.getTransactionHistory(userId, pageable));
     }
 
+    @GetMapping("/transactions/history")
+    public ResponseEntity<PointsTransactionHistoryResponse> getTransactionHistory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = getUserId(userDetails);
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        return ResponseEntity.ok(loyaltyService.getTransactionHistory(userId, cursor, month, pageSize));
+    }
+
     @PostMapping("/birthday")
     public ResponseEntity<LoyaltyAccountDTO> setBirthday(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -76,8 +92,6 @@ public class LoyaltyController {
     }
 
     private Long getUserId(UserDetails userDetails) {
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return ((AuthenticatedUser) userDetails).getId();
     }
 }
@@ -0,0 +1,34 @@
+package com.qkart.controller;
+
+import com.qkart.dto.LoyaltyMaintenanceReport;
+import com.qkart.exception.BadRequestException;
+import com.qkart.job.LoyaltyMaintenanceJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/loyalty/maintenance")
+@RequiredArgsConstructor
+public class LoyaltyMaintenanceController {
+
+    private final LoyaltyMaintenanceJob loyaltyMaintenanceJob;
+
+    @GetMapping
+    public ResponseEntity<LoyaltyMaintenanceReport> getReport() {
+        LoyaltyMaintenanceReport report = loyaltyMaintenanceJob.getReport();
+        if (report == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<LoyaltyMaintenanceReport> run() {
+        if (!loyaltyMaintenanceJob.start()) {
+            throw new BadRequestException("Loyalty maintenance is already running");
+        }
+        return new ResponseEntity<>(loyaltyMaintenanceJob.getReport(), HttpStatus.ACCEPTED);
+    }
+}
@@ -3,6 +3,7 @@ package com.qkart.controller;
 import com.qkart.dto.CreatePaymentRequest;
 import com.qkart.dto.PaymentResponse;
 import com.qkart.service.PaymentService;
+import com.qkart.service.StripeWebhookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final StripeWebhookService stripeWebhookService;
 
     @PostMapping("/create-payment-intent")
     public ResponseEntity<PaymentResponse> createPaymentIntent(
@@ -31,7 +33,8 @@ public class PaymentController {
     public ResponseEntity<String> handleWebhook(
             @RequestBody String payload,
             @RequestHeader("Stripe-Signature") String signature) {
-        paymentService.handleWebhook(payload, signature);
+        // Stored for background processing; redeliveries are acknowledged the same way
+        stripeWebhookService.ingest(payload, signature);
         return ResponseEntity.ok("Webhook received");
     }
 }
@@ -0,0 +1,34 @@
+package com.qkart.controller;
+
+import com.qkart.dto.PaymentReconciliationReport;
+import com.qkart.exception.BadRequestException;
+import com.qkart.job.PaymentReconciliationJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/payments/reconciliation")
+@RequiredArgsConstructor
+public class PaymentReconciliationController {
+
+    private final PaymentReconciliationJob paymentReconciliationJob;
+
+    @GetMapping
+    public ResponseEntity<PaymentReconciliationReport> getReport() {
+        PaymentReconciliationReport report = paymentReconciliationJob.getReport();
+        if (report == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<PaymentReconciliationReport> run() {
+        if (!paymentReconciliationJob.start()) {
+            throw new BadRequestException("Payment reconciliation is already running");
+        }
+        return new ResponseEntity<>(paymentReconciliationJob.getReport(), HttpStatus.ACCEPTED);
+    }
+}
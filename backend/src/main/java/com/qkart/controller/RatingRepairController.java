@@ -0,0 +1,34 @@
+package com.qkart.controller;
+
+import com.qkart.dto.RatingRepairReport;
+import com.qkart.exception.BadRequestException;
+import com.qkart.job.RatingRepairJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/reviews/rating-repair")
+@RequiredArgsConstructor
+public class RatingRepairController {
+
+    private final RatingRepairJob ratingRepairJob;
+
+    @GetMapping
+    public ResponseEntity<RatingRepairReport> getReport() {
+        RatingRepairReport report = ratingRepairJob.getReport();
+        if (report == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<RatingRepairReport> run(@RequestParam(defaultValue = "true") boolean dryRun) {
+        if (!ratingRepairJob.start(dryRun)) {
+            throw new BadRequestException("Rating repair is already running");
+        }
+        return new ResponseEntity<>(ratingRepairJob.getReport(), HttpStatus.ACCEPTED);
+    }
+}
@@ -1,6 +1,7 @@
 package com.qkart.controller;
 
 import com.qkart.dto.RecommendationDTO;
+import com.qkart.security.AuthenticatedUser;
 import com.qkart.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +17,6 @@ import java.util.List;
 public class RecommendationController {
 
     private final RecommendationService recommendationService;
-    private final com.qkart.repository.UserRepository userRepository;
 
     @GetMapping("/personalized")
     public ResponseEntity<List<RecommendationDTO>> getPersonalized(
@@ -40,8 +40,6 @@ public class RecommendationController {
     }
 
     private Long getUserId(UserDetails userDetails) {
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return ((AuthenticatedUser) userDetails).getId();
     }
 }
@@ -1,13 +1,19 @@
 package com.qkart.controller;
 
 import com.qkart.dto.CreateReviewRequest;
+import com.qkart.dto.ProductRatingSummariesRequest;
 import com.qkart.dto.ProductRatingSummary;
 import com.qkart.dto.ReviewDTO;
+import com.qkart.dto.ReviewPageResponse;
+import com.qkart.dto.ReviewSearchResponse;
+import com.qkart.security.AuthenticatedUser;
 import com.qkart.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,6 +25,8 @@ public class ReviewController {
 
     private final ReviewService reviewService;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @GetMapping("/product/{productId}")
     public ResponseEntity<Page<ReviewDTO>> getProductReviews(
             @PathVariable Long productId,
@@ -28,11 +36,36 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.getProductReviews(productId, sortBy, page, size));
     }
 
+    @GetMapping("/product/{productId}/page")
+    public ResponseEntity<ReviewPageResponse> getProductReviewPage(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "newest") String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(reviewService.getProductReviewPage(productId, sortBy, cursor, pageSize));
+    }
+
+    @GetMapping("/product/{productId}/search")
+    public ResponseEntity<ReviewSearchResponse> searchProductReviews(
+            @PathVariable Long productId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(reviewService.searchProductReviews(productId, q, pageSize));
+    }
+
     @GetMapping("/product/{productId}/summary")
     public ResponseEntity<ProductRatingSummary> getProductRatingSummary(@PathVariable Long productId) {
         return ResponseEntity.ok(reviewService.getProductRatingSummary(productId));
     }
 
+    @PostMapping("/summaries")
+    public ResponseEntity<List<ProductRatingSummary>> getProductRatingSummaries(
+            @Valid @RequestBody ProductRatingSummariesRequest request) {
+        return ResponseEntity.ok(reviewService.getProductRatingSummaries(request.getProductIds()));
+    }
+
     @PostMapping("/user/{userId}")
     public ResponseEntity<ReviewDTO> createReview(
             @PathVariable Long userId,
@@ -57,13 +90,22 @@ public class ReviewController {
     }
 
     @PostMapping("/{reviewId}/helpful")
-    public ResponseEntity<Void> markHelpful(@PathVariable Long reviewId) {
-        reviewService.markHelpful(reviewId);
+    public ResponseEntity<Void> markHelpful(
+            @PathVariable Long reviewId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        reviewService.markHelpful(reviewId, getUserId(userDetails));
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ReviewDTO>> getUserReviews(@PathVariable Long userId) {
-        return ResponseEntity.ok(reviewService.getUserReviews(userId));
+    public ResponseEntity<List<ReviewDTO>> getUserReviews(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(reviewService.getUserReviews(userId, pageSize));
+    }
+
+    private Long getUserId(UserDetails userDetails) {
+        return ((AuthenticatedUser) userDetails).getId();
     }
 }
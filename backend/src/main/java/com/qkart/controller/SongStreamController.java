@@ -0,0 +1,23 @@
+package com.qkart.controller;
+
+import com.qkart.service.SongStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/songs")
+@RequiredArgsConstructor
+public class SongStreamController {
+
+    private final SongStreamService songStreamService;
+
+    @RequestMapping(value = "/{id}/stream", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void stream(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        songStreamService.stream(id, request, response);
+    }
+}
@@ -1,7 +1,7 @@
 package com.qkart.controller;
 
 import com.qkart.dto.AddressDTO;
-import com.qkart.model.User;
+import com.qkart.dto.UserDTO;
 import com.qkart.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,8 +18,8 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getUserProfile(id));
     }
 
     @GetMapping("/{userId}/addresses")
@@ -0,0 +1,17 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumLikeStatus {
+    private Long albumId;
+    private boolean liked;
+    // As of the last catalog snapshot; recent likes show up within a few seconds
+    private Integer likes;
+}
@@ -0,0 +1,21 @@
+package com.qkart.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumLikeStatusRequest {
+
+    @NotEmpty(message = "Album IDs are required")
+    @Size(max = 100, message = "At most 100 albums per request")
+    private List<Long> albumIds;
+}
@@ -0,0 +1,21 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthLoadReport {
+    private Hashing hashing;
+    private Throttle throttle;
+
+    public record Hashing(int threads, int activeThreads, int queueDepth, int queueCapacity,
+                          long completed, long rejected, long timedOut,
+                          double avgQueueWaitMs, double avgHashMs, double maxHashMs) {}
+
+    public record Throttle(long allowed, long throttledByIp, long throttledByAccount, int trackedKeys) {}
+}
@@ -0,0 +1,44 @@
+package com.qkart.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class BestCouponsResponse {
+
+    private BigDecimal orderAmount;
+    private String bestCode;
+    private List<CouponValidationResponse> coupons;
+
+    public BestCouponsResponse() {}
+
+    public BestCouponsResponse(BigDecimal orderAmount, List<CouponValidationResponse> coupons) {
+        this.orderAmount = orderAmount;
+        this.coupons = coupons;
+        this.bestCode = coupons.isEmpty() ? null : coupons.get(0).getCode();
+    }
+
+    // Getters and Setters
+    public BigDecimal getOrderAmount() {
+        return orderAmount;
+    }
+
+    public void setOrderAmount(BigDecimal orderAmount) {
+        this.orderAmount = orderAmount;
+    }
+
+    public String getBestCode() {
+        return bestCode;
+    }
+
+    public void setBestCode(String bestCode) {
+        this.bestCode = bestCode;
+    }
+
+    public List<CouponValidationResponse> getCoupons() {
+        return coupons;
+    }
+
+    public void setCoupons(List<CouponValidationResponse> coupons) {
+        this.coupons = coupons;
+    }
+}
@@ -0,0 +1,23 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSearchResponse {
+    private String query;
+    private List<String> terms;
+    private List<ProductDTO> products;
+    private List<AlbumDTO> albums;
+    private List<SongDTO> songs;
+    // False if the latency budget ran out and some groups may be missing hits
+    private boolean complete;
+    private long tookMicros;
+}
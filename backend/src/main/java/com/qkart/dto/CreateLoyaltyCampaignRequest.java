@@ -0,0 +1,25 @@
+package com.qkart.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateLoyaltyCampaignRequest {
+
+    @NotBlank(message = "Campaign name is required")
+    private String name;
+
+    @NotNull(message = "Points are required")
+    @Positive(message = "Points must be positive")
+    private Integer points;
+
+    private String targetTier; // Optional: BRONZE, SILVER, GOLD or PLATINUM; all accounts when omitted
+}
@@ -17,6 +17,7 @@ public class LoyaltyAccountDTO {
     private Long userId;
     private Integer pointsBalance;
     private Integer lifetimePoints;
+    private Integer tierQualifyingPoints;
     private String tier;
     private String tierDisplayName;
     private Double pointsMultiplier;
@@ -26,13 +27,18 @@ public class LoyaltyAccountDTO {
     private boolean birthdayBonusAvailable;
 
     public static LoyaltyAccountDTO fromEntity(LoyaltyAccount account) {
+        return fromEntity(account, account.getPointsBalance(), account.getLifetimePoints(), account.getLifetimePoints());
+    }
+
+    public static LoyaltyAccountDTO fromEntity(LoyaltyAccount account, int pointsBalance,
+                                               int lifetimePoints, int tierQualifyingPoints) {
         LoyaltyAccount.LoyaltyTier currentTier = account.getTier();
         LoyaltyAccount.LoyaltyTier nextTier = getNextTier(currentTier);
 
         int pointsToNext = 0;
         String nextTierName = null;
         if (nextTier != null) {
-            pointsToNext = nextTier.getRequiredPoints() - account.getLifetimePoints();
+            pointsToNext = nextTier.getRequiredPoints() - tierQualifyingPoints;
             nextTierName = nextTier.getDisplayName();
         }
 
@@ -48,8 +54,9 @@ public class LoyaltyAccountDTO {
         return LoyaltyAccountDTO.builder()
                 .id(account.getId())
                 .userId(account.getUser().getId())
-                .pointsBalance(account.getPointsBalance())
-                .lifetimePoints(account.getLifetimePoints())
+                .pointsBalance(pointsBalance)
+                .lifetimePoints(lifetimePoints)
+                .tierQualifyingPoints(tierQualifyingPoints)
                 .tier(currentTier.name())
                 .tierDisplayName(currentTier.getDisplayName())
                 .pointsMultiplier(currentTier.getMultiplier())
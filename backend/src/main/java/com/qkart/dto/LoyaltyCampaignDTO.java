@@ -0,0 +1,41 @@
+package com.qkart.dto;
+
+import com.qkart.model.LoyaltyCampaign;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyCampaignDTO {
+    private Long id;
+    private String name;
+    private Integer points;
+    private String targetTier;
+    private String status;
+    private Long lastProcessedAccountId;
+    private Long accountsCredited;
+    private String failureMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public static LoyaltyCampaignDTO fromEntity(LoyaltyCampaign campaign) {
+        return LoyaltyCampaignDTO.builder()
+                .id(campaign.getId())
+                .name(campaign.getName())
+                .points(campaign.getPoints())
+                .targetTier(campaign.getTargetTier() != null ? campaign.getTargetTier().name() : null)
+                .status(campaign.getStatus().name())
+                .lastProcessedAccountId(campaign.getLastProcessedAccountId())
+                .accountsCredited(campaign.getAccountsCredited())
+                .failureMessage(campaign.getFailureMessage())
+                .createdAt(campaign.getCreatedAt())
+                .completedAt(campaign.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyMaintenanceReport {
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiryCutoff;
+    private LocalDateTime tierQualifyingSince;
+    private Integer workers;
+    private Integer chunkSize;
+    private Long accountsScanned;
+    private Long accountsWithExpiredPoints;
+    private Long pointsExpired;
+    private Long tierChanges;
+    private Long failedChunks;
+    private Long durationMs;
+    private Double accountsPerSecond;
+}
@@ -0,0 +1,30 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentReconciliationReport {
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime staleBefore;
+    private Long backlog; // Stale pending or processing payments when the run started
+    private Long oldestPendingAgeSeconds; // Lag: age of the oldest unsettled payment when the run started
+    private Integer concurrency;
+    private Integer chunkSize;
+    private Long paymentsChecked;
+    private Long paymentsUpdated;
+    private Map<String, Long> updatedByStatus;
+    private Long lookupFailures;
+    private Long failedChunks;
+    private Long durationMs;
+}
@@ -0,0 +1,20 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sum of a slice of the points ledger: net points (balance) and positive points (lifetime).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsLedgerTotals {
+    private Long balance;
+    private Long lifetime;
+
+    public PointsLedgerTotals plus(int balance, int lifetime) {
+        return new PointsLedgerTotals(this.balance + balance, this.lifetime + lifetime);
+    }
+}
@@ -0,0 +1,18 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsTransactionHistoryResponse {
+    private List<PointsTransactionDTO> transactions;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,21 @@
+package com.qkart.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRatingSummariesRequest {
+
+    @NotEmpty(message = "Product IDs are required")
+    @Size(max = 100, message = "At most 100 products per request")
+    private List<Long> productIds;
+}
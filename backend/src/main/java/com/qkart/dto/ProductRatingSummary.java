@@ -1,10 +1,12 @@
 package com.qkart.dto;
 
+import com.qkart.model.Product;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Data
@@ -12,7 +14,26 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductRatingSummary {
+    private Long productId;
     private Double averageRating;
     private Long totalReviews;
     private Map<Integer, Long> ratingDistribution; // Rating (1-5) -> Count
+
+    public static ProductRatingSummary fromProduct(Product product) {
+        Map<Integer, Long> ratingDistribution = new HashMap<>();
+        ratingDistribution.put(1, product.getOneStarCount().longValue());
+        ratingDistribution.put(2, product.getTwoStarCount().longValue());
+        ratingDistribution.put(3, product.getThreeStarCount().longValue());
+        ratingDistribution.put(4, product.getFourStarCount().longValue());
+        ratingDistribution.put(5, product.getFiveStarCount().longValue());
+
+        long totalReviews = ratingDistribution.values().stream().mapToLong(Long::longValue).sum();
+
+        return ProductRatingSummary.builder()
+                .productId(product.getId())
+                .averageRating(totalReviews > 0 ? (double) product.getRatingSum() / totalReviews : 0.0)
+                .totalReviews(totalReviews)
+                .ratingDistribution(ratingDistribution)
+                .build();
+    }
 }
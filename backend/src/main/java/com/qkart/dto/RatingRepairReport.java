@@ -0,0 +1,33 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingRepairReport {
+    private String status;
+    private boolean dryRun;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Integer parallelism;
+    private Integer chunkSize;
+    private Long productsScanned;
+    private Long reviewsCounted;
+    private Long productsDrifted;
+    private Long productsUpdated;
+    private Long failedChunks;
+    private Long durationMs;
+    private Double productsPerSecond;
+    private List<Diff> sampleDiffs; // First drifted products found, capped
+
+    public record Diff(Long productId, Double storedRating, Integer storedReviewCount,
+                       Double actualRating, Integer actualReviewCount) {}
+}
@@ -0,0 +1,18 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageResponse {
+    private List<ReviewDTO> reviews;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,24 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSearchResponse {
+    private String query;
+    private List<String> terms;
+    private List<Hit> hits;
+
+    /**
+     * A matching review with the query terms wrapped in {@code <mark>} in HTML-escaped copies
+     * of its title and comment.
+     */
+    public record Hit(ReviewDTO review, String highlightedTitle, String highlightedComment) {}
+}
@@ -0,0 +1,22 @@
+package com.qkart.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongPlaysRequest {
+
+    // One entry per play; a song may appear more than once
+    @NotEmpty(message = "Song IDs are required")
+    @Size(max = 500, message = "At most 500 plays per request")
+    private List<Long> songIds;
+}
@@ -0,0 +1,25 @@
+package com.qkart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDTO {
+    private Long id;
+    private String email;
+    private String name;
+    private String phone;
+    private String profileImageUrl;
+    private String role;
+    private boolean emailVerified;
+    private LocalDateTime createdAt;
+    private List<AddressDTO> addresses;
+}
@@ -0,0 +1,48 @@
+package com.qkart.job;
+
+import com.qkart.service.AlbumCatalog;
+import com.qkart.service.AlbumService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the album catalog snapshot at startup and rebuilds it after album or song data
+ * changes. Changes are coalesced, so a stream of play flushes costs at most one rebuild
+ * per interval. A failed rebuild keeps serving the previous snapshot and is retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumCatalogRefreshJob {
+
+    private final AlbumCatalog albumCatalog;
+    private final AlbumService albumService;
+
+    // Startup runners may seed albums after an early scheduled run, so always rebuild here
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        albumCatalog.markChanged();
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${albums.catalog.refresh-interval-ms}")
+    public synchronized void refresh() {
+        if (!albumCatalog.consumeChange()) {
+            return;
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            albumService.rebuildCatalog();
+            log.debug("Rebuilt album catalog with {} albums in {} ms",
+                    albumCatalog.get().albums().size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild album catalog; serving the previous snapshot", e);
+            albumCatalog.markChanged();
+        }
+    }
+}
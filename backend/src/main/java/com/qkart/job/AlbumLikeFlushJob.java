@@ -0,0 +1,42 @@
+package com.qkart.job;
+
+import com.qkart.service.AlbumLikeBuffer;
+import com.qkart.service.AlbumService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes buffered album likes to the album_likes table and the albums' like counts, and
+ * once more on shutdown. A failed flush puts its changes back into the buffer to be retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumLikeFlushJob {
+
+    private final AlbumLikeBuffer albumLikeBuffer;
+    private final AlbumService albumService;
+
+    @Scheduled(fixedDelayString = "${albums.likes.flush-interval-ms}")
+    public synchronized void flush() {
+        AlbumLikeBuffer.Changes changes = albumLikeBuffer.drain();
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            albumService.applyLikeChanges(changes);
+        } catch (Exception e) {
+            log.warn("Failed to flush likes for {} albums; will retry", changes.likeDeltas().size(), e);
+            albumLikeBuffer.restore(changes);
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,63 @@
+package com.qkart.job;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a job's passes one at a time on its own coordinator thread, so neither the caller
+ * nor the scheduler thread waits for them, and keeps the progress of the current or last
+ * pass for the job's report.
+ */
+public class BackgroundRunner<P extends RunProgress> {
+
+    private final ExecutorService coordinator;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile P progress;
+
+    public BackgroundRunner(String threadName) {
+        coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a run in the background unless one is already in progress.
+     */
+    public boolean start(Supplier<P> newProgress, Consumer<P> run) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            P current = newProgress.get();
+            progress = current;
+            coordinator.submit(() -> {
+                try {
+                    run.accept(current);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Progress of the current or last run, or null if nothing has run yet.
+     */
+    public P getProgress() {
+        return progress;
+    }
+
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package com.qkart.job;
+
+import com.qkart.service.CatalogSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the catalog search index at startup and rebuilds it when the product catalog
+ * version or the album catalog snapshot changes. Searches keep using the previous index
+ * while a rebuild runs or if one fails.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchIndexRefreshJob {
+
+    private final CatalogSearchService catalogSearchService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        refresh(true);
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms}")
+    public void refresh() {
+        refresh(false);
+    }
+
+    private synchronized void refresh(boolean force) {
+        try {
+            catalogSearchService.refreshIndex(force);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild catalog search index; serving the previous one", e);
+        }
+    }
+}
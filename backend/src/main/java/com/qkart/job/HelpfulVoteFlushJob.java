@@ -0,0 +1,46 @@
+package com.qkart.job;
+
+import com.qkart.service.HelpfulVoteBuffer;
+import com.qkart.service.ReviewService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes buffered helpful votes to the database every few hundred milliseconds, and
+ * once more on shutdown so votes still in memory are not lost. A failed flush puts its
+ * votes back into the buffer to be retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HelpfulVoteFlushJob {
+
+    private final HelpfulVoteBuffer helpfulVoteBuffer;
+    private final ReviewService reviewService;
+
+    @Scheduled(fixedDelayString = "${reviews.helpful.flush-interval-ms}")
+    public synchronized void flush() {
+        Map<Long, List<Long>> votes = helpfulVoteBuffer.drain();
+        if (votes.isEmpty()) {
+            return;
+        }
+
+        try {
+            reviewService.applyHelpfulVotes(votes);
+        } catch (Exception e) {
+            log.warn("Failed to flush helpful votes for {} reviews; will retry", votes.size(), e);
+            helpfulVoteBuffer.restore(votes);
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,108 @@
+package com.qkart.job;
+
+import com.qkart.model.LoyaltyCampaign;
+import com.qkart.service.LoyaltyCampaignService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs loyalty campaigns in the background, one at a time. Target accounts are read in
+ * id order from the campaign checkpoint, so a campaign interrupted by a pause, failure or
+ * restart picks up after the last committed chunk. A pause between chunks keeps the job
+ * from crowding out regular traffic.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoyaltyCampaignJob {
+
+    private final LoyaltyCampaignService loyaltyCampaignService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "loyalty-campaign");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    @Value("${loyalty.campaign.chunk-size}")
+    private int chunkSize;
+
+    @Value("${loyalty.campaign.chunk-pause-ms}")
+    private long chunkPauseMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningCampaigns() {
+        List<Long> running = loyaltyCampaignService.getRunningCampaignIds();
+        running.forEach(this::submit);
+        if (!running.isEmpty()) {
+            log.info("Resuming {} loyalty campaigns from their checkpoints", running.size());
+        }
+    }
+
+    public void submit(Long campaignId) {
+        if (queued.add(campaignId)) {
+            executor.submit(() -> {
+                try {
+                    run(campaignId);
+                } finally {
+                    queued.remove(campaignId);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Long campaignId) {
+        long started = System.currentTimeMillis();
+        long credited = 0;
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                LoyaltyCampaign campaign = loyaltyCampaignService.getCampaign(campaignId);
+                if (campaign.getStatus() != LoyaltyCampaign.CampaignStatus.RUNNING) {
+                    log.info("Loyalty campaign {} stopped with status {}", campaignId, campaign.getStatus());
+                    return;
+                }
+
+                List<Long> accountIds = loyaltyCampaignService.findNextAccountIds(campaign, chunkSize);
+                if (accountIds.isEmpty()) {
+                    if (!loyaltyCampaignService.finishRun(campaignId, LoyaltyCampaign.CampaignStatus.COMPLETED, null)) {
+                        log.info("Loyalty campaign {} changed status before it could complete", campaignId);
+                        return;
+                    }
+                    log.info("Loyalty campaign {} completed: {} accounts credited in {} ms",
+                            campaignId, credited, System.currentTimeMillis() - started);
+                    return;
+                }
+
+                loyaltyCampaignService.creditChunk(campaign, accountIds);
+                credited += accountIds.size();
+
+                Thread.sleep(chunkPauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Loyalty campaign {} interrupted; it will resume from its checkpoint", campaignId);
+        } catch (Exception e) {
+            log.error("Loyalty campaign {} failed", campaignId, e);
+            loyaltyCampaignService.finishRun(campaignId, LoyaltyCampaign.CampaignStatus.FAILED, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.qkart.job;
+
+import com.qkart.dto.LoyaltyMaintenanceReport;
+import com.qkart.repository.LoyaltyAccountRepository;
+import com.qkart.service.LoyaltyMaintenanceService;
+import com.qkart.service.LoyaltyService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nightly points expiry and tier recalculation. Account ids are streamed forward in id
+ * order, one keyset page at a time, and each page is handed to a fixed pool of workers
+ * that process it in its own transaction. The number of chunks in flight is bounded, so
+ * memory stays flat however many accounts there are. Progress and throughput of the
+ * current or last run are available from {@link #getReport()}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoyaltyMaintenanceJob {
+
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final LoyaltyMaintenanceService loyaltyMaintenanceService;
+    private final LoyaltyService loyaltyService;
+
+    private final BackgroundRunner<Progress> runner = new BackgroundRunner<>("loyalty-maintenance");
+
+    @Value("${loyalty.points.expiry-months}")
+    private int expiryMonths;
+
+    @Value("${loyalty.maintenance.chunk-size}")
+    private int chunkSize;
+
+    @Value("${loyalty.maintenance.workers}")
+    private int workers;
+
+    @Scheduled(cron = "${loyalty.maintenance.cron}")
+    public void runNightly() {
+        if (!start()) {
+            log.warn("Skipping scheduled loyalty maintenance; the previous run has not finished");
+        }
+    }
+
+    /**
+     * Starts a run in the background unless one is already in progress.
+     */
+    public boolean start() {
+        return runner.start(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return new Progress(now, now.minusMonths(expiryMonths), loyaltyService.getTierQualifyingSince());
+        }, this::run);
+    }
+
+    public LoyaltyMaintenanceReport getReport() {
+        Progress current = runner.getProgress();
+        return current != null ? current.toReport() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    private void run(Progress progress) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "loyalty-maintenance-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(workers * 2);
+        log.info("Loyalty maintenance started: expiring points earned before {}, tiers from points earned since {}",
+                progress.expiryCutoff, progress.qualifyingSince);
+
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<Long> accountIds = loyaltyAccountRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (accountIds.isEmpty()) {
+                    break;
+                }
+                afterId = accountIds.get(accountIds.size() - 1);
+
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        LoyaltyMaintenanceService.ChunkResult result = loyaltyMaintenanceService.processChunk(
+                                accountIds, progress.expiryCutoff, progress.qualifyingSince);
+                        progress.record(accountIds.size(), result);
+                    } catch (Exception e) {
+                        progress.recordFailedChunk();
+                        log.error("Loyalty maintenance failed for accounts {}..{}",
+                                accountIds.get(0), accountIds.get(accountIds.size() - 1), e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            progress.finish(progress.getFailedChunks() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+            progress.finish("INTERRUPTED");
+        } catch (Exception e) {
+            log.error("Loyalty maintenance aborted", e);
+            pool.shutdownNow();
+            progress.finish("FAILED");
+        }
+
+        LoyaltyMaintenanceReport report = progress.toReport();
+        log.info("Loyalty maintenance {}: {} accounts in {} ms ({} accounts/s), {} points expired on {} accounts, " +
+                        "{} tier changes, {} failed chunks",
+                report.getStatus(), report.getAccountsScanned(), report.getDurationMs(),
+                String.format("%.1f", report.getAccountsPerSecond()), report.getPointsExpired(),
+                report.getAccountsWithExpiredPoints(), report.getTierChanges(), report.getFailedChunks());
+    }
+
+    private class Progress extends RunProgress {
+        private final LocalDateTime expiryCutoff;
+        private final LocalDateTime qualifyingSince;
+        private final LongAdder accountsScanned = new LongAdder();
+        private final LongAdder accountsExpired = new LongAdder();
+        private final LongAdder pointsExpired = new LongAdder();
+        private final LongAdder tierChanges = new LongAdder();
+
+        private Progress(LocalDateTime startedAt, LocalDateTime expiryCutoff, LocalDateTime qualifyingSince) {
+            super(startedAt);
+            this.expiryCutoff = expiryCutoff;
+            this.qualifyingSince = qualifyingSince;
+        }
+
+        private void record(int accounts, LoyaltyMaintenanceService.ChunkResult result) {
+            accountsScanned.add(accounts);
+            accountsExpired.add(result.accountsExpired());
+            pointsExpired.add(result.pointsExpired());
+            tierChanges.add(result.tierChanges());
+        }
+
+        private LoyaltyMaintenanceReport toReport() {
+            long durationMs = getDurationMs();
+            long scanned = accountsScanned.sum();
+
+            return LoyaltyMaintenanceReport.builder()
+                    .status(getStatus())
+                    .startedAt(getStartedAt())
+                    .finishedAt(getFinishedAt())
+                    .expiryCutoff(expiryCutoff)
+                    .tierQualifyingSince(qualifyingSince)
+                    .workers(workers)
+                    .chunkSize(chunkSize)
+                    .accountsScanned(scanned)
+                    .accountsWithExpiredPoints(accountsExpired.sum())
+                    .pointsExpired(pointsExpired.sum())
+                    .tierChanges(tierChanges.sum())
+                    .failedChunks(getFailedChunks())
+                    .durationMs(durationMs)
+                    .accountsPerSecond(durationMs > 0 ? scanned * 1000.0 / durationMs : 0.0)
+                    .build();
+        }
+    }
+}
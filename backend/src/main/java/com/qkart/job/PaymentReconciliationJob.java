@@ -0,0 +1,221 @@
+package com.qkart.job;
+
+import com.qkart.dto.PaymentReconciliationReport;
+import com.qkart.model.Payment;
+import com.qkart.repository.PaymentRepository;
+import com.qkart.service.PaymentGateway;
+import com.qkart.service.PaymentReconciliationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds payments stuck in PENDING or PROCESSING, typically because their webhook was lost,
+ * and asks the provider what became of them. Stale payments are streamed in keyset chunks;
+ * each chunk's intents are looked up on a small pool, so the provider sees bounded
+ * concurrency, and the resulting status changes are applied in one transaction per chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationJob {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGateway paymentGateway;
+    private final PaymentReconciliationService paymentReconciliationService;
+
+    private final BackgroundRunner<Progress> runner = new BackgroundRunner<>("payment-reconciliation");
+
+    private ExecutorService lookupPool;
+
+    @Value("${payments.reconciliation.stale-after-minutes}")
+    private long staleAfterMinutes;
+
+    @Value("${payments.reconciliation.chunk-size}")
+    private int chunkSize;
+
+    @Value("${payments.reconciliation.concurrency}")
+    private int concurrency;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        lookupPool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payment-reconciliation-lookup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${payments.reconciliation.interval-ms}",
+               initialDelayString = "${payments.reconciliation.interval-ms}")
+    public void scheduledRun() {
+        start();
+    }
+
+    /**
+     * Starts a run in the background unless one is already in progress.
+     */
+    public boolean start() {
+        return runner.start(() -> new Progress(LocalDateTime.now().minusMinutes(staleAfterMinutes)), this::run);
+    }
+
+    public PaymentReconciliationReport getReport() {
+        Progress current = runner.getProgress();
+        return current != null ? current.toReport() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+        lookupPool.shutdownNow();
+    }
+
+    private void run(Progress progress) {
+        try {
+            progress.backlog = paymentRepository.countByStatusInAndCreatedAtBefore(
+                    PaymentReconciliationService.UNSETTLED, progress.staleBefore);
+            progress.oldestPendingAgeSeconds = paymentRepository.findOldestCreatedAt(PaymentReconciliationService.UNSETTLED)
+                    .map(createdAt -> Duration.between(createdAt, progress.getStartedAt()).toSeconds())
+                    .orElse(0L);
+            if (progress.backlog == 0) {
+                progress.finish("COMPLETED");
+                return;
+            }
+
+            long afterId = 0L;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Object[]> rows = paymentRepository.findIntentIdsAfter(
+                        PaymentReconciliationService.UNSETTLED, progress.staleBefore, afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+
+                Map<Long, PaymentGateway.IntentState> states = lookUp(rows, progress);
+                if (states.isEmpty()) {
+                    continue;
+                }
+                try {
+                    paymentReconciliationService.applyChunk(states)
+                            .forEach((status, count) -> progress.updated.get(status).add(count));
+                } catch (Exception e) {
+                    progress.recordFailedChunk();
+                    log.error("Payment reconciliation failed for payments up to id {}", afterId, e);
+                }
+            }
+
+            progress.finish(Thread.currentThread().isInterrupted() ? "INTERRUPTED"
+                    : progress.getFailedChunks() == 0 && progress.lookupFailures.sum() == 0 ? "COMPLETED"
+                    : "COMPLETED_WITH_ERRORS");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish("INTERRUPTED");
+        } catch (Exception e) {
+            log.error("Payment reconciliation aborted", e);
+            progress.finish("FAILED");
+        }
+
+        PaymentReconciliationReport report = progress.toReport();
+        if (report.getBacklog() > 0) {
+            log.info("Payment reconciliation {}: {} stale unsettled (oldest {} s), {} checked, {} updated {}, " +
+                            "{} lookup failures in {} ms",
+                    report.getStatus(), report.getBacklog(), report.getOldestPendingAgeSeconds(),
+                    report.getPaymentsChecked(), report.getPaymentsUpdated(), report.getUpdatedByStatus(),
+                    report.getLookupFailures(), report.getDurationMs());
+        }
+    }
+
+    // Rows are [paymentId, intentId]; failed lookups are left for the next run
+    private Map<Long, PaymentGateway.IntentState> lookUp(List<Object[]> rows, Progress progress)
+            throws InterruptedException {
+        List<Long> paymentIds = new ArrayList<>(rows.size());
+        List<Callable<PaymentGateway.IntentState>> lookups = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String intentId = (String) row[1];
+            if (intentId == null) {
+                continue;
+            }
+            paymentIds.add((Long) row[0]);
+            lookups.add(() -> paymentGateway.retrievePaymentIntent(intentId));
+        }
+
+        List<Future<PaymentGateway.IntentState>> results = lookupPool.invokeAll(lookups);
+        Map<Long, PaymentGateway.IntentState> states = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            progress.checked.increment();
+            try {
+                states.put(paymentIds.get(i), results.get(i).get());
+            } catch (Exception e) {
+                progress.lookupFailures.increment();
+                log.warn("Could not look up payment {}: {}", paymentIds.get(i), e.getMessage());
+            }
+        }
+        return states;
+    }
+
+    private class Progress extends RunProgress {
+        private final LocalDateTime staleBefore;
+        private final LongAdder checked = new LongAdder();
+        private final LongAdder lookupFailures = new LongAdder();
+        private final Map<Payment.PaymentStatus, LongAdder> updated = new EnumMap<>(Payment.PaymentStatus.class);
+        private volatile long backlog;
+        private volatile long oldestPendingAgeSeconds;
+
+        private Progress(LocalDateTime staleBefore) {
+            this.staleBefore = staleBefore;
+            for (Payment.PaymentStatus paymentStatus : Payment.PaymentStatus.values()) {
+                updated.put(paymentStatus, new LongAdder());
+            }
+        }
+
+        private PaymentReconciliationReport toReport() {
+            Map<String, Long> updatedByStatus = new LinkedHashMap<>();
+            long totalUpdated = 0;
+            for (Map.Entry<Payment.PaymentStatus, LongAdder> entry : updated.entrySet()) {
+                long count = entry.getValue().sum();
+                if (count > 0) {
+                    updatedByStatus.put(entry.getKey().name(), count);
+                    totalUpdated += count;
+                }
+            }
+
+            return PaymentReconciliationReport.builder()
+                    .status(getStatus())
+                    .startedAt(getStartedAt())
+                    .finishedAt(getFinishedAt())
+                    .staleBefore(staleBefore)
+                    .backlog(backlog)
+                    .oldestPendingAgeSeconds(oldestPendingAgeSeconds)
+                    .concurrency(concurrency)
+                    .chunkSize(chunkSize)
+                    .paymentsChecked(checked.sum())
+                    .paymentsUpdated(totalUpdated)
+                    .updatedByStatus(updatedByStatus)
+                    .lookupFailures(lookupFailures.sum())
+                    .failedChunks(getFailedChunks())
+                    .durationMs(getDurationMs())
+                    .build();
+        }
+    }
+}
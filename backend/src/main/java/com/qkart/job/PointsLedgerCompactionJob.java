@@ -0,0 +1,59 @@
+package com.qkart.job;
+
+import com.qkart.repository.PointsTransactionRepository;
+import com.qkart.service.LoyaltyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the loyalty ledger tail short by periodically folding old transactions into each
+ * account's balance snapshot. Rows are flagged as they are folded rather than cut off at a
+ * timestamp, so transactions still in flight when the job runs are picked up next time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PointsLedgerCompactionJob {
+
+    private static final int ACCOUNT_BATCH_SIZE = 500;
+
+    private final PointsTransactionRepository pointsTransactionRepository;
+    private final LoyaltyService loyaltyService;
+
+    @Value("${loyalty.ledger.compaction.min-tail}")
+    private long minTail;
+
+    @Scheduled(fixedDelayString = "${loyalty.ledger.compaction.interval-ms}",
+               initialDelayString = "${loyalty.ledger.compaction.interval-ms}")
+    public void compact() {
+        int compacted = 0;
+
+        while (true) {
+            List<Long> accountIds = pointsTransactionRepository.findAccountIdsWithTailAtLeast(
+                    minTail, PageRequest.of(0, ACCOUNT_BATCH_SIZE));
+
+            int compactedInBatch = 0;
+            for (Long accountId : accountIds) {
+                if (loyaltyService.compactLedger(accountId)) {
+                    compactedInBatch++;
+                }
+            }
+            compacted += compactedInBatch;
+
+            // Compacted accounts drop out of the query; stop once a batch makes no progress
+            if (accountIds.size() < ACCOUNT_BATCH_SIZE || compactedInBatch == 0) {
+                break;
+            }
+        }
+
+        if (compacted > 0) {
+            log.info("Compacted points ledger for {} accounts", compacted);
+        }
+    }
+}
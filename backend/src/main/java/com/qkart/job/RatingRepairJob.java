@@ -0,0 +1,161 @@
+package com.qkart.job;
+
+import com.qkart.dto.RatingRepairReport;
+import com.qkart.repository.ProductRepository;
+import com.qkart.service.RatingRepairService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recomputes every product's rating aggregates from its reviews. Product ids are streamed
+ * in keyset pages and each page is repaired as one task on a fork-join pool, with a bounded
+ * number of pages in flight. A dry run only reports the drift it finds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingRepairJob {
+
+    private static final int MAX_SAMPLE_DIFFS = 100;
+
+    private final ProductRepository productRepository;
+    private final RatingRepairService ratingRepairService;
+
+    private final BackgroundRunner<Progress> runner = new BackgroundRunner<>("rating-repair");
+
+    @Value("${reviews.rating-repair.chunk-size}")
+    private int chunkSize;
+
+    @Value("${reviews.rating-repair.parallelism}")
+    private int parallelism;
+
+    /**
+     * Starts a run in the background unless one is already in progress.
+     */
+    public boolean start(boolean dryRun) {
+        return runner.start(() -> new Progress(dryRun), this::run);
+    }
+
+    public RatingRepairReport getReport() {
+        Progress current = runner.getProgress();
+        return current != null ? current.toReport() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    private void run(Progress progress) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        log.info("Rating repair started (dry run: {})", progress.dryRun);
+
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<Long> productIds = productRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (productIds.isEmpty()) {
+                    break;
+                }
+                afterId = productIds.get(productIds.size() - 1);
+
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        progress.record(productIds.size(), ratingRepairService.repairChunk(productIds, progress.dryRun));
+                    } catch (Exception e) {
+                        progress.recordFailedChunk();
+                        log.error("Rating repair failed for products {}..{}",
+                                productIds.get(0), productIds.get(productIds.size() - 1), e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            progress.finish(progress.getFailedChunks() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+            progress.finish("INTERRUPTED");
+        } catch (Exception e) {
+            log.error("Rating repair aborted", e);
+            pool.shutdownNow();
+            progress.finish("FAILED");
+        }
+
+        RatingRepairReport report = progress.toReport();
+        log.info("Rating repair {} (dry run: {}): {} products and {} reviews in {} ms ({} products/s), " +
+                        "{} drifted, {} updated, {} failed chunks",
+                report.getStatus(), report.isDryRun(), report.getProductsScanned(), report.getReviewsCounted(),
+                report.getDurationMs(), String.format("%.1f", report.getProductsPerSecond()),
+                report.getProductsDrifted(), report.getProductsUpdated(), report.getFailedChunks());
+    }
+
+    private class Progress extends RunProgress {
+        private final boolean dryRun;
+        private final LongAdder productsScanned = new LongAdder();
+        private final LongAdder reviewsCounted = new LongAdder();
+        private final LongAdder productsDrifted = new LongAdder();
+        private final List<RatingRepairReport.Diff> sampleDiffs = Collections.synchronizedList(new ArrayList<>());
+
+        private Progress(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        private void record(int products, RatingRepairService.ChunkResult result) {
+            productsScanned.add(products);
+            reviewsCounted.add(result.reviewsCounted());
+            productsDrifted.add(result.diffs().size());
+            for (RatingRepairReport.Diff diff : result.diffs()) {
+                if (sampleDiffs.size() >= MAX_SAMPLE_DIFFS) {
+                    break;
+                }
+                sampleDiffs.add(diff);
+            }
+        }
+
+        private RatingRepairReport toReport() {
+            long durationMs = getDurationMs();
+            long scanned = productsScanned.sum();
+            long drifted = productsDrifted.sum();
+
+            List<RatingRepairReport.Diff> diffs;
+            synchronized (sampleDiffs) {
+                diffs = new ArrayList<>(sampleDiffs);
+            }
+
+            return RatingRepairReport.builder()
+                    .status(getStatus())
+                    .dryRun(dryRun)
+                    .startedAt(getStartedAt())
+                    .finishedAt(getFinishedAt())
+                    .parallelism(parallelism)
+                    .chunkSize(chunkSize)
+                    .productsScanned(scanned)
+                    .reviewsCounted(reviewsCounted.sum())
+                    .productsDrifted(drifted)
+                    .productsUpdated(dryRun ? 0L : drifted)
+                    .failedChunks(getFailedChunks())
+                    .durationMs(durationMs)
+                    .productsPerSecond(durationMs > 0 ? scanned * 1000.0 / durationMs : 0.0)
+                    .sampleDiffs(diffs)
+                    .build();
+        }
+    }
+}
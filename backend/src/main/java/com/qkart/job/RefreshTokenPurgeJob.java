@@ -0,0 +1,44 @@
+package com.qkart.job;
+
+import com.qkart.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired refresh tokens in small chunks, each in its own transaction, so the
+ * purge never holds locks on a large part of the table at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurgeJob {
+
+    private final AuthService authService;
+
+    @Value("${auth.refresh-token.purge.chunk-size}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge.interval-ms}",
+               initialDelayString = "${auth.refresh-token.purge.interval-ms}")
+    public void purge() {
+        Instant now = Instant.now();
+        long purged = 0;
+
+        while (true) {
+            int deleted = authService.purgeExpiredRefreshTokens(now, chunkSize);
+            purged += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+}
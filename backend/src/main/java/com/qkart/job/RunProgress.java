@@ -0,0 +1,61 @@
+package com.qkart.job;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Status, timing and failed-chunk count shared by the progress of every {@link BackgroundRunner}
+ * job. Jobs extend it with their own counters and turn it into their report.
+ */
+public abstract class RunProgress {
+
+    private final LocalDateTime startedAt;
+    private final long startedNanos = System.nanoTime();
+    private final LongAdder failedChunks = new LongAdder();
+    private volatile String status = "RUNNING";
+    private volatile LocalDateTime finishedAt;
+    private volatile long finishedNanos;
+
+    protected RunProgress() {
+        this(LocalDateTime.now());
+    }
+
+    protected RunProgress(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public void finish(String finalStatus) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    public void recordFailedChunk() {
+        failedChunks.increment();
+    }
+
+    public long getFailedChunks() {
+        return failedChunks.sum();
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Time taken so far, or in total once the run has finished.
+     */
+    public long getDurationMs() {
+        long endNanos = finishedAt != null ? finishedNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - startedNanos);
+    }
+}
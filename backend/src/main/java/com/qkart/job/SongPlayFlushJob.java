@@ -0,0 +1,44 @@
+package com.qkart.job;
+
+import com.qkart.service.AlbumService;
+import com.qkart.service.SongPlayBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Writes buffered song plays to the songs table as per-song deltas, and once more on
+ * shutdown. A failed flush puts its plays back into the buffer to be retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SongPlayFlushJob {
+
+    private final SongPlayBuffer songPlayBuffer;
+    private final AlbumService albumService;
+
+    @Scheduled(fixedDelayString = "${albums.plays.flush-interval-ms}")
+    public synchronized void flush() {
+        Map<Long, Long> plays = songPlayBuffer.drain();
+        if (plays.isEmpty()) {
+            return;
+        }
+
+        try {
+            albumService.applyPlayDeltas(plays);
+        } catch (Exception e) {
+            log.warn("Failed to flush plays for {} songs; will retry", plays.size(), e);
+            songPlayBuffer.restore(plays);
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,117 @@
+package com.qkart.job;
+
+import com.qkart.model.StripeWebhookEvent;
+import com.qkart.repository.StripeWebhookEventRepository;
+import com.qkart.service.StripeWebhookService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains queued Stripe webhook events. Each poll takes the oldest queued events and splits
+ * them across a worker pool by the object they are about, so events for one payment intent
+ * stay in order while different intents are applied in parallel. A worker applies its
+ * events in one transaction; if that fails, it retries them one by one so a single bad
+ * event doesn't hold back the rest.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookProcessor {
+
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final StripeWebhookService stripeWebhookService;
+
+    @Value("${payments.webhook.batch-size}")
+    private int batchSize;
+
+    @Value("${payments.webhook.workers}")
+    private int workers;
+
+    private ExecutorService pool;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "stripe-webhook-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${payments.webhook.poll-interval-ms}")
+    public void processQueued() {
+        try {
+            while (true) {
+                List<Object[]> queued = webhookEventRepository.findQueued(
+                        StripeWebhookEvent.Status.RECEIVED, PageRequest.of(0, batchSize));
+                if (queued.isEmpty()) {
+                    return;
+                }
+
+                List<List<Long>> partitions = new ArrayList<>(workers);
+                for (int i = 0; i < workers; i++) {
+                    partitions.add(new ArrayList<>());
+                }
+                for (Object[] row : queued) {
+                    String objectId = (String) row[1];
+                    int partition = objectId != null ? Math.floorMod(objectId.hashCode(), workers) : 0;
+                    partitions.get(partition).add((Long) row[0]);
+                }
+
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (List<Long> ids : partitions) {
+                    if (!ids.isEmpty()) {
+                        tasks.add(() -> {
+                            process(ids);
+                            return null;
+                        });
+                    }
+                }
+                pool.invokeAll(tasks);
+
+                if (queued.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(List<Long> ids) {
+        try {
+            stripeWebhookService.processBatch(ids);
+            return;
+        } catch (Exception e) {
+            log.warn("Stripe webhook batch of {} events failed; retrying individually", ids.size(), e);
+        }
+
+        for (Long id : ids) {
+            try {
+                stripeWebhookService.processBatch(List.of(id));
+            } catch (Exception e) {
+                log.warn("Stripe webhook event row {} failed", id, e);
+                stripeWebhookService.recordFailure(id, e);
+            }
+        }
+    }
+}
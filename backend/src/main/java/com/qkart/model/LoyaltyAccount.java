@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,6 +16,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 public class LoyaltyAccount {
 
     @Id
@@ -25,6 +27,7 @@ public class LoyaltyAccount {
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
+    // Balance and lifetime points of the compacted ledger rows; uncompacted rows form the tail
     @Column(nullable = false)
     private Integer pointsBalance = 0;
 
@@ -65,32 +68,6 @@ public class LoyaltyAccount {
         updatedAt = LocalDateTime.now();
     }
 
-    public void addPoints(int points) {
-        this.pointsBalance += points;
-        this.lifetimePoints += points;
-        updateTier();
-    }
-
-    public boolean redeemPoints(int points) {
-        if (pointsBalance >= points) {
-            this.pointsBalance -= points;
-            return true;
-        }
-        return false;
-    }
-
-    private void updateTier() {
-        if (lifetimePoints >= 10000) {
-            this.tier = LoyaltyTier.PLATINUM;
-        } else if (lifetimePoints >= 5000) {
-            this.tier = LoyaltyTier.GOLD;
-        } else if (lifetimePoints >= 1000) {
-            this.tier = LoyaltyTier.SILVER;
-        } else {
-            this.tier = LoyaltyTier.BRONZE;
-        }
-    }
-
     public double getPointsMultiplier() {
         return tier.getMultiplier();
     }
@@ -122,5 +99,16 @@ public class LoyaltyAccount {
         public int getRequiredPoints() {
             return requiredPoints;
         }
+
+        public static LoyaltyTier forPoints(long points) {
+            if (points >= PLATINUM.requiredPoints) {
+                return PLATINUM;
+            } else if (points >= GOLD.requiredPoints) {
+                return GOLD;
+            } else if (points >= SILVER.requiredPoints) {
+                return SILVER;
+            }
+            return BRONZE;
+        }
     }
 }
@@ -0,0 +1,65 @@
+package com.qkart.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "loyalty_campaigns")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyCampaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private Integer points;
+
+    // Null targets every loyalty account
+    @Enumerated(EnumType.STRING)
+    private LoyaltyAccount.LoyaltyTier targetTier;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private CampaignStatus status = CampaignStatus.RUNNING;
+
+    // Checkpoint: every account with a lower or equal id has been credited
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastProcessedAccountId = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long accountsCredited = 0L;
+
+    private String failureMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum CampaignStatus {
+        RUNNING,
+        PAUSED,
+        COMPLETED,
+        FAILED
+    }
+}
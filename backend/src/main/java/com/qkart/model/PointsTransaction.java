@@ -9,15 +9,20 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "points_transactions")
+@Table(name = "points_transactions", indexes = {
+    @Index(name = "idx_points_tx_account_created", columnList = "loyalty_account_id, created_at, id"),
+    @Index(name = "idx_points_tx_account_compacted", columnList = "loyalty_account_id, compacted")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class PointsTransaction {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch ledger inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "points_tx_seq")
+    @SequenceGenerator(name = "points_tx_seq", sequenceName = "points_transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,6 +46,10 @@ public class PointsTransaction {
     @Column(nullable = false)
     private Integer balanceAfter;
 
+    // Set once the row has been folded into the account snapshot; rows still false form the tail
+    @Column(nullable = false)
+    private boolean compacted;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -40,6 +41,37 @@ public class Product {
 
     private Integer reviewCount;
 
+    // Running review aggregates, adjusted by delta on every review write
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer oneStarCount = 0;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer twoStarCount = 0;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer threeStarCount = 0;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer fourStarCount = 0;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer fiveStarCount = 0;
+
     private LocalDateTime createdAt;
 
     @PrePersist
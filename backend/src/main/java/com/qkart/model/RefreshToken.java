@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_refresh_tokens_expiry", columnList = "expiry_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,8 +27,9 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // Hex SHA-256 of the token handed to the client; the token itself is never stored
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @Column(nullable = false)
     private Instant expiryDate;
@@ -37,6 +41,8 @@ public class RefreshToken {
     @Column(updatable = false)
     private Instant createdAt;
 
+    private Instant rotatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
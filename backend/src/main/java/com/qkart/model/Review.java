@@ -7,6 +7,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "reviews", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "product_id"})
+}, indexes = {
+    // One per listing sort; id is the keyset tie-breaker
+    @Index(name = "idx_reviews_product_created", columnList = "product_id, created_at, id"),
+    @Index(name = "idx_reviews_product_rating", columnList = "product_id, rating, id"),
+    @Index(name = "idx_reviews_product_helpful", columnList = "product_id, helpful_count, id"),
+    @Index(name = "idx_reviews_user_created", columnList = "user_id, created_at")
 })
 @Data
 @Builder
@@ -0,0 +1,68 @@
+package com.qkart.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified Stripe webhook event, stored as received and processed in the background.
+ * The unique Stripe event id makes redelivered events a no-op.
+ */
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+    @Index(name = "idx_stripe_webhook_events_status", columnList = "status, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String type;
+
+    // Id of the object the event is about (usually a payment intent); events for the
+    // same object are processed in the order they were received
+    private String objectId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.RECEIVED;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        receivedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        RECEIVED,
+        PROCESSED,
+        FAILED
+    }
+}
@@ -5,10 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -22,6 +24,8 @@ import java.util.List;
 @AllArgsConstructor
 public class User implements UserDetails {
 
+    public static final Duration LOCK_DURATION = Duration.ofMinutes(15);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +50,7 @@ public class User implements UserDetails {
     @Builder.Default
     private boolean emailVerified = false;
 
+    // Lock engaged after repeated failed sign-ins; it lapses on its own after LOCK_DURATION
     @Builder.Default
     private boolean accountLocked = false;
 
@@ -54,6 +59,12 @@ public class User implements UserDetails {
 
     private LocalDateTime lockTime;
 
+    // Bumped to revoke every access token issued so far (logout everywhere, account lock)
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
@@ -93,9 +104,10 @@ public class User implements UserDetails {
         return true;
     }
 
+    // An expired lock is treated as lifted rather than cleared, so sign-in never writes the row to unlock it
     @Override
     public boolean isAccountNonLocked() {
-        return !accountLocked;
+        return !accountLocked || lockTime == null || !LocalDateTime.now().isBefore(lockTime.plus(LOCK_DURATION));
     }
 
     @Override
@@ -0,0 +1,28 @@
+package com.qkart.repository;
+
+import com.qkart.model.AlbumLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlbumLikeRepository extends JpaRepository<AlbumLike, Long> {
+
+    @Query("SELECT l.user.id FROM AlbumLike l WHERE l.album.id = :albumId")
+    List<Long> findUserIdsByAlbumId(@Param("albumId") Long albumId);
+
+    /**
+     * Liking users of several albums. Each row is [albumId, userId].
+     */
+    @Query("SELECT l.album.id, l.user.id FROM AlbumLike l WHERE l.album.id IN :albumIds")
+    List<Object[]> findAlbumUserIdsByAlbumIdIn(@Param("albumIds") Collection<Long> albumIds);
+
+    @Modifying
+    @Query("DELETE FROM AlbumLike l WHERE l.album.id = :albumId AND l.user.id IN :userIds")
+    int deleteByAlbumIdAndUserIdIn(@Param("albumId") Long albumId, @Param("userIds") Collection<Long> userIds);
+}
@@ -2,10 +2,12 @@ package com.qkart.repository;
 
 import com.qkart.model.Album;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +25,8 @@ public interface AlbumRepository extends JpaRepository<Album, Long> {
 
     @Query("SELECT DISTINCT a.genre FROM Album a WHERE a.genre IS NOT NULL")
     List<String> findAllGenres();
+
+    @Modifying
+    @Query("UPDATE Album a SET a.likes = COALESCE(a.likes, 0) + :delta WHERE a.id IN :ids")
+    int incrementLikes(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
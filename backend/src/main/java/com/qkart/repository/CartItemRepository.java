@@ -2,12 +2,18 @@ package com.qkart.repository;
 
 import com.qkart.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
     void deleteByCartIdAndProductId(Long cartId, Long productId);
+
+    @Query("SELECT COALESCE(SUM(ci.product.price * ci.quantity), 0) FROM CartItem ci WHERE ci.cart.user.id = :userId")
+    BigDecimal getCartSubtotalByUserId(@Param("userId") Long userId);
 }
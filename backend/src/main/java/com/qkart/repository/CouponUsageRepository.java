@@ -14,6 +14,9 @@ public interface CouponUsageRepository extends JpaRepository<CouponUsage, Long>
     @Query("SELECT COUNT(cu) FROM CouponUsage cu WHERE cu.coupon.id = :couponId AND cu.user.id = :userId")
     long countByCouponIdAndUserId(@Param("couponId") Long couponId, @Param("userId") Long userId);
 
+    @Query("SELECT cu.coupon.id, COUNT(cu) FROM CouponUsage cu WHERE cu.user.id = :userId GROUP BY cu.coupon.id")
+    List<Object[]> countUsagesByCouponForUser(@Param("userId") Long userId);
+
     List<CouponUsage> findByUserId(Long userId);
 
     List<CouponUsage> findByCouponId(Long couponId);
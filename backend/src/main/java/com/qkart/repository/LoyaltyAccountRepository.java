@@ -1,9 +1,18 @@
 package com.qkart.repository;
 
 import com.qkart.model.LoyaltyAccount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +21,38 @@ public interface LoyaltyAccountRepository extends JpaRepository<LoyaltyAccount,
     Optional<LoyaltyAccount> findByUserId(Long userId);
 
     boolean existsByUserId(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM LoyaltyAccount a WHERE a.user.id = :userId")
+    Optional<LoyaltyAccount> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM LoyaltyAccount a WHERE a.id IN :ids ORDER BY a.id")
+    List<LoyaltyAccount> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id FROM LoyaltyAccount a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT a.id FROM LoyaltyAccount a WHERE a.tier = :tier AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsByTierAfter(@Param("tier") LoyaltyAccount.LoyaltyTier tier,
+                                  @Param("afterId") Long afterId,
+                                  Pageable pageable);
+
+    /**
+     * Current balance and lifetime points (snapshot plus ledger tail) for a set of accounts.
+     * Each row is [accountId, balance, lifetimePoints].
+     */
+    @Query("SELECT a.id, a.pointsBalance + COALESCE(SUM(t.points), 0), " +
+           "a.lifetimePoints + COALESCE(SUM(CASE WHEN t.points > 0 THEN t.points ELSE 0 END), 0) " +
+           "FROM LoyaltyAccount a LEFT JOIN PointsTransaction t " +
+           "ON t.loyaltyAccount = a AND t.compacted = false " +
+           "WHERE a.id IN :ids GROUP BY a.id, a.pointsBalance, a.lifetimePoints")
+    List<Object[]> findLedgerTotals(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE LoyaltyAccount a SET a.tier = :tier, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.tier <> :tier")
+    int updateTier(@Param("ids") Collection<Long> ids,
+                   @Param("tier") LoyaltyAccount.LoyaltyTier tier,
+                   @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,37 @@
+package com.qkart.repository;
+
+import com.qkart.model.LoyaltyCampaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoyaltyCampaignRepository extends JpaRepository<LoyaltyCampaign, Long> {
+
+    List<LoyaltyCampaign> findAllByOrderByCreatedAtDesc();
+
+    List<LoyaltyCampaign> findByStatus(LoyaltyCampaign.CampaignStatus status);
+
+    @Modifying
+    @Query("UPDATE LoyaltyCampaign c SET c.lastProcessedAccountId = :to, " +
+           "c.accountsCredited = c.accountsCredited + :credited " +
+           "WHERE c.id = :id AND c.lastProcessedAccountId = :from")
+    int advanceCheckpoint(@Param("id") Long id,
+                          @Param("from") Long from,
+                          @Param("to") Long to,
+                          @Param("credited") long credited);
+
+    @Modifying
+    @Query("UPDATE LoyaltyCampaign c SET c.status = :to, c.failureMessage = :failureMessage, " +
+           "c.completedAt = :completedAt WHERE c.id = :id AND c.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") LoyaltyCampaign.CampaignStatus from,
+                         @Param("to") LoyaltyCampaign.CampaignStatus to,
+                         @Param("failureMessage") String failureMessage,
+                         @Param("completedAt") LocalDateTime completedAt);
+}
@@ -1,9 +1,16 @@
 package com.qkart.repository;
 
 import com.qkart.model.Payment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +24,24 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     List<Payment> findByStatus(Payment.PaymentStatus status);
+
+    /**
+     * One keyset page of payments in any of {@code statuses} created before {@code before}.
+     * Each row is [id, stripePaymentIntentId].
+     */
+    @Query("SELECT p.id, p.stripePaymentIntentId FROM Payment p " +
+           "WHERE p.status IN :statuses AND p.createdAt < :before AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIntentIdsAfter(@Param("statuses") Collection<Payment.PaymentStatus> statuses,
+                                      @Param("before") LocalDateTime before,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    long countByStatusInAndCreatedAtBefore(Collection<Payment.PaymentStatus> statuses, LocalDateTime before);
+
+    @Query("SELECT MIN(p.createdAt) FROM Payment p WHERE p.status IN :statuses")
+    Optional<LocalDateTime> findOldestCreatedAt(@Param("statuses") Collection<Payment.PaymentStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id IN :ids ORDER BY p.id")
+    List<Payment> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -1,11 +1,17 @@
 package com.qkart.repository;
 
+import com.qkart.dto.PointsLedgerTotals;
 import com.qkart.model.PointsTransaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +22,64 @@ public interface PointsTransactionRepository extends JpaRepository<PointsTransac
     List<PointsTransaction> findByLoyaltyAccountIdOrderByCreatedAtDesc(Long loyaltyAccountId);
 
     List<PointsTransaction> findByOrderId(Long orderId);
+
+    /**
+     * One keyset page of an account's history, newest first, starting strictly before
+     * ({@code beforeCreatedAt}, {@code beforeId}) and not older than {@code from}.
+     * Served by the (loyalty_account_id, created_at, id) index without a count query.
+     */
+    @Query("SELECT t FROM PointsTransaction t WHERE t.loyaltyAccount.id = :accountId " +
+           "AND t.createdAt >= :from " +
+           "AND (t.createdAt < :beforeCreatedAt OR (t.createdAt = :beforeCreatedAt AND t.id < :beforeId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<PointsTransaction> findHistoryBefore(@Param("accountId") Long accountId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                              @Param("beforeId") Long beforeId,
+                                              Pageable pageable);
+
+    @Query("SELECT new com.qkart.dto.PointsLedgerTotals(COALESCE(SUM(t.points), 0L), " +
+           "COALESCE(SUM(CASE WHEN t.points > 0 THEN t.points ELSE 0 END), 0L)) " +
+           "FROM PointsTransaction t WHERE t.loyaltyAccount.id = :accountId AND t.compacted = false")
+    PointsLedgerTotals sumTail(@Param("accountId") Long accountId);
+
+    /**
+     * The oldest uncompacted rows of an account's ledger. Each row is [transactionId, points].
+     */
+    @Query("SELECT t.id, t.points FROM PointsTransaction t " +
+           "WHERE t.loyaltyAccount.id = :accountId AND t.compacted = false ORDER BY t.id")
+    List<Object[]> findTail(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PointsTransaction t SET t.compacted = true WHERE t.id IN :ids AND t.compacted = false")
+    int markCompacted(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.loyaltyAccount.id FROM PointsTransaction t WHERE t.compacted = false " +
+           "GROUP BY t.loyaltyAccount.id HAVING COUNT(t) >= :minTail ORDER BY t.loyaltyAccount.id")
+    List<Long> findAccountIdsWithTailAtLeast(@Param("minTail") long minTail, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(t.points), 0L) FROM PointsTransaction t " +
+           "WHERE t.loyaltyAccount.id = :accountId AND t.points > 0 AND t.createdAt > :since")
+    long sumEarnedSince(@Param("accountId") Long accountId, @Param("since") LocalDateTime since);
+
+    /**
+     * Points earned after {@code since}, per account. Each row is [accountId, earnedPoints].
+     */
+    @Query("SELECT t.loyaltyAccount.id, SUM(t.points) FROM PointsTransaction t " +
+           "WHERE t.loyaltyAccount.id IN :ids AND t.points > 0 AND t.createdAt > :since " +
+           "GROUP BY t.loyaltyAccount.id")
+    List<Object[]> sumEarnedSinceByAccount(@Param("ids") Collection<Long> ids, @Param("since") LocalDateTime since);
+
+    /**
+     * Full-history ledger summary per account, used by the nightly maintenance job.
+     * Each row is [accountId, earnedBeforeExpiryCutoff, totalDebited, qualifyingPoints].
+     */
+    @Query("SELECT t.loyaltyAccount.id, " +
+           "SUM(CASE WHEN t.points > 0 AND t.createdAt <= :expiryCutoff THEN t.points ELSE 0 END), " +
+           "SUM(CASE WHEN t.points < 0 THEN -t.points ELSE 0 END), " +
+           "SUM(CASE WHEN t.points > 0 AND t.createdAt > :qualifyingSince THEN t.points ELSE 0 END) " +
+           "FROM PointsTransaction t WHERE t.loyaltyAccount.id IN :ids GROUP BY t.loyaltyAccount.id")
+    List<Object[]> summarizeLedger(@Param("ids") Collection<Long> ids,
+                                   @Param("expiryCutoff") LocalDateTime expiryCutoff,
+                                   @Param("qualifyingSince") LocalDateTime qualifyingSince);
 }
@@ -1,14 +1,18 @@
 package com.qkart.repository;
 
 import com.qkart.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -35,4 +39,37 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     List<Product> findSuggestions(@Param("query") String query);
 
     List<Product> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves one review between rating buckets. Pass 0 for {@code added} when a review is
+     * deleted and 0 for {@code removed} when one is created.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.ratingSum = p.ratingSum + :added - :removed, " +
+           "p.oneStarCount = p.oneStarCount + CASE WHEN :added = 1 THEN 1 ELSE 0 END - CASE WHEN :removed = 1 THEN 1 ELSE 0 END, " +
+           "p.twoStarCount = p.twoStarCount + CASE WHEN :added = 2 THEN 1 ELSE 0 END - CASE WHEN :removed = 2 THEN 1 ELSE 0 END, " +
+           "p.threeStarCount = p.threeStarCount + CASE WHEN :added = 3 THEN 1 ELSE 0 END - CASE WHEN :removed = 3 THEN 1 ELSE 0 END, " +
+           "p.fourStarCount = p.fourStarCount + CASE WHEN :added = 4 THEN 1 ELSE 0 END - CASE WHEN :removed = 4 THEN 1 ELSE 0 END, " +
+           "p.fiveStarCount = p.fiveStarCount + CASE WHEN :added = 5 THEN 1 ELSE 0 END - CASE WHEN :removed = 5 THEN 1 ELSE 0 END " +
+           "WHERE p.id = :productId")
+    int applyRatingChange(@Param("productId") Long productId,
+                          @Param("added") int added,
+                          @Param("removed") int removed);
+
+    // Separate statement: SET expressions in one UPDATE see the pre-update bucket values
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.reviewCount = p.oneStarCount + p.twoStarCount + p.threeStarCount + p.fourStarCount + p.fiveStarCount, " +
+           "p.rating = CASE WHEN p.oneStarCount + p.twoStarCount + p.threeStarCount + p.fourStarCount + p.fiveStarCount > 0 " +
+           "THEN CAST(p.ratingSum AS Double) / (p.oneStarCount + p.twoStarCount + p.threeStarCount + p.fourStarCount + p.fiveStarCount) " +
+           "ELSE 0.0 END " +
+           "WHERE p.id = :productId")
+    int refreshRating(@Param("productId") Long productId);
 }
@@ -2,24 +2,52 @@ package com.qkart.repository;
 
 import com.qkart.model.RefreshToken;
 import com.qkart.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
 
+    /**
+     * Rotates a session in place. Matches on the presented hash too, so of two concurrent
+     * refreshes with the same token only one succeeds.
+     */
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.user = :user")
-    void deleteByUser(User user);
+    @Query("UPDATE RefreshToken rt SET rt.tokenHash = :newHash, rt.expiryDate = :expiryDate, rt.rotatedAt = :now " +
+           "WHERE rt.id = :id AND rt.tokenHash = :oldHash")
+    int rotate(@Param("id") Long id,
+               @Param("oldHash") String oldHash,
+               @Param("newHash") String newHash,
+               @Param("expiryDate") Instant expiryDate,
+               @Param("now") Instant now);
+
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.user.id = :userId ORDER BY rt.createdAt DESC, rt.id DESC")
+    List<Long> findSessionIdsNewestFirst(@Param("userId") Long userId);
+
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate < :now ORDER BY rt.expiryDate")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now")
-    void deleteExpiredTokens(Instant now);
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user = :user")
+    void deleteByUser(User user);
 }
@@ -0,0 +1,27 @@
+package com.qkart.repository;
+
+import com.qkart.model.ReviewHelpfulVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReviewHelpfulVoteRepository extends JpaRepository<ReviewHelpfulVote, Long> {
+
+    /**
+     * Stored votes among the given reviews and users. Each row is [reviewId, userId].
+     */
+    @Query("SELECT v.review.id, v.user.id FROM ReviewHelpfulVote v " +
+           "WHERE v.review.id IN :reviewIds AND v.user.id IN :userIds")
+    List<Object[]> findVotes(@Param("reviewIds") Collection<Long> reviewIds,
+                             @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM ReviewHelpfulVote v WHERE v.review.id = :reviewId")
+    int deleteByReviewId(@Param("reviewId") Long reviewId);
+}
@@ -1,24 +1,82 @@
 package com.qkart.repository;
 
+import com.qkart.dto.ReviewDTO;
 import com.qkart.model.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    Page<Review> findByProductIdOrderByCreatedAtDesc(Long productId, Pageable pageable);
+    String REVIEW_DTO = "SELECT new com.qkart.dto.ReviewDTO(r.id, r.product.id, u.id, u.name, r.rating, " +
+                        "r.title, r.comment, r.verifiedPurchase, r.helpfulCount, r.createdAt) " +
+                        "FROM Review r JOIN r.user u ";
 
-    Page<Review> findByProductIdOrderByRatingDesc(Long productId, Pageable pageable);
+    @Query(value = REVIEW_DTO + "WHERE r.product.id = :productId ORDER BY r.createdAt DESC, r.id DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
+    Page<ReviewDTO> findNewestByProductId(@Param("productId") Long productId, Pageable pageable);
 
-    Page<Review> findByProductIdOrderByHelpfulCountDesc(Long productId, Pageable pageable);
+    @Query(value = REVIEW_DTO + "WHERE r.product.id = :productId ORDER BY r.rating DESC, r.id DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
+    Page<ReviewDTO> findHighestByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    @Query(value = REVIEW_DTO + "WHERE r.product.id = :productId ORDER BY r.helpfulCount DESC, r.id DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
+    Page<ReviewDTO> findMostHelpfulByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    @Query(REVIEW_DTO + "WHERE r.product.id = :productId " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findNewestByProductIdBefore(@Param("productId") Long productId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query(REVIEW_DTO + "WHERE r.product.id = :productId " +
+           "AND (r.rating < :rating OR (r.rating = :rating AND r.id < :id)) " +
+           "ORDER BY r.rating DESC, r.id DESC")
+    List<ReviewDTO> findHighestByProductIdBefore(@Param("productId") Long productId,
+                                                 @Param("rating") int rating,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
+    @Query(REVIEW_DTO + "WHERE r.product.id = :productId " +
+           "AND (r.helpfulCount < :helpfulCount OR (r.helpfulCount = :helpfulCount AND r.id < :id)) " +
+           "ORDER BY r.helpfulCount DESC, r.id DESC")
+    List<ReviewDTO> findMostHelpfulByProductIdBefore(@Param("productId") Long productId,
+                                                     @Param("helpfulCount") int helpfulCount,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    /**
+     * Review counts per product and star rating. Each row is [productId, rating, count].
+     */
+    @Query("SELECT r.product.id, r.rating, COUNT(r) FROM Review r WHERE r.product.id IN :productIds " +
+           "GROUP BY r.product.id, r.rating")
+    List<Object[]> countByProductAndRating(@Param("productIds") Collection<Long> productIds);
+
+    @Query(REVIEW_DTO + "WHERE r.id IN :ids")
+    List<ReviewDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Text of every review of a product, for building its search index.
+     * Each row is [reviewId, title, comment].
+     */
+    @Query("SELECT r.id, r.title, r.comment FROM Review r WHERE r.product.id = :productId")
+    List<Object[]> findSearchDocumentsByProductId(@Param("productId") Long productId);
+
+    @Query(REVIEW_DTO + "WHERE u.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
 
     List<Review> findByProductId(Long productId);
 
@@ -35,5 +93,10 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.product.id = :productId GROUP BY r.rating ORDER BY r.rating DESC")
     List<Object[]> getRatingDistributionByProductId(@Param("productId") Long productId);
 
-    List<Review> findByUserId(Long userId);
+    @Query("SELECT r.id FROM Review r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.helpfulCount = r.helpfulCount + :delta WHERE r.id IN :ids")
+    int incrementHelpfulCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
@@ -2,10 +2,12 @@ package com.qkart.repository;
 
 import com.qkart.model.Song;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,9 +15,22 @@ public interface SongRepository extends JpaRepository<Song, Long> {
 
     List<Song> findByAlbumId(Long albumId);
 
-    @Query("SELECT s FROM Song s WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+    @Query("SELECT s FROM Song s LEFT JOIN FETCH s.album WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(s.artist) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Song> searchSongs(@Param("query") String query);
 
     List<Song> findTop10ByOrderByPlaysDesc();
+
+    @Query("SELECT s FROM Song s LEFT JOIN FETCH s.album")
+    List<Song> findAllWithAlbum();
+
+    /**
+     * Album of each existing song. Each row is [songId, albumId].
+     */
+    @Query("SELECT s.id, s.album.id FROM Song s WHERE s.id IN :ids AND s.album IS NOT NULL")
+    List<Object[]> findAlbumIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Song s SET s.plays = COALESCE(s.plays, 0) + :delta WHERE s.id IN :ids")
+    int incrementPlays(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
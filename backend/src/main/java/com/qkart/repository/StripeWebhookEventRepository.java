@@ -0,0 +1,29 @@
+package com.qkart.repository;
+
+import com.qkart.model.StripeWebhookEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, Long> {
+
+    /**
+     * Oldest events waiting to be processed. Each row is [id, objectId].
+     */
+    @Query("SELECT e.id, e.objectId FROM StripeWebhookEvent e WHERE e.status = :status ORDER BY e.id")
+    List<Object[]> findQueued(@Param("status") StripeWebhookEvent.Status status, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM StripeWebhookEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<StripeWebhookEvent> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    boolean existsByEventId(String eventId);
+}
@@ -0,0 +1,75 @@
+package com.qkart.security;
+
+import com.qkart.model.User;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built from access-token claims, so authenticating a request does not
+ * load the {@link User} entity. Controllers can take it as {@code @AuthenticationPrincipal}
+ * to get the user id directly.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final User.Role role;
+    private final int tokenVersion;
+
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Integer tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+        return new AuthenticatedUser(
+                claims.get(JwtService.USER_ID_CLAIM, Long.class),
+                claims.getSubject(),
+                User.Role.valueOf(claims.get(JwtService.ROLE_CLAIM, String.class)),
+                tokenVersion != null ? tokenVersion : 0);
+    }
+
+    public static AuthenticatedUser fromUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getTokenVersion());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
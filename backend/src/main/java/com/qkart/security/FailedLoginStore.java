@@ -0,0 +1,25 @@
+package com.qkart.security;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Failed sign-in counters and lock windows, keyed by account. Kept out of the users table
+ * so a credential-stuffing run does not turn into a write per attempt; only an engaged lock
+ * is persisted. The in-JVM {@link InMemoryFailedLoginStore} is the default; a shared store
+ * (for example Redis) can replace it to count attempts across nodes.
+ */
+public interface FailedLoginStore {
+
+    /**
+     * Records a failed attempt and returns the number of failures inside the counting
+     * window, this one included.
+     */
+    int recordFailure(String account);
+
+    void clearFailures(String account);
+
+    void lock(String account, Instant until);
+
+    Optional<Instant> getLockedUntil(String account);
+}
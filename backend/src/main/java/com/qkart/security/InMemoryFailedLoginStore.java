@@ -0,0 +1,155 @@
+package com.qkart.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link FailedLoginStore} held in this JVM. Accounts are spread over lock stripes so
+ * concurrent attempts on different accounts rarely contend. Each account counts failures
+ * in a few time buckets covering the window, so old failures age out without timers.
+ * Entries with nothing left in the window and no active lock are dropped when a stripe
+ * reaches its share of the tracked-account bound.
+ */
+@Component
+public class InMemoryFailedLoginStore implements FailedLoginStore {
+
+    private static final int STRIPES = 64;
+    private static final int BUCKETS = 6;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @Value("${auth.failed-login.window-ms}")
+    private long windowMs;
+
+    @Value("${auth.failed-login.max-tracked-accounts}")
+    private int maxTrackedAccounts;
+
+    private long bucketMs;
+    private int maxEntriesPerStripe;
+
+    @PostConstruct
+    void init() {
+        bucketMs = Math.max(1, windowMs / BUCKETS);
+        maxEntriesPerStripe = Math.max(1, maxTrackedAccounts / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public int recordFailure(String account) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(account);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(account);
+            if (entry == null) {
+                makeRoom(stripe, now);
+                entry = new Entry();
+                stripe.entries.put(account, entry);
+            }
+
+            long bucketStart = now - now % bucketMs;
+            int index = (int) ((now / bucketMs) % BUCKETS);
+            if (entry.bucketStarts[index] != bucketStart) {
+                entry.bucketStarts[index] = bucketStart;
+                entry.counts[index] = 0;
+            }
+            entry.counts[index]++;
+            return entry.failuresSince(now - windowMs);
+        }
+    }
+
+    @Override
+    public void clearFailures(String account) {
+        Stripe stripe = stripeFor(account);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(account);
+            if (entry != null && entry.lockedUntil <= System.currentTimeMillis()) {
+                stripe.entries.remove(account);
+            } else if (entry != null) {
+                entry.clearCounts();
+            }
+        }
+    }
+
+    @Override
+    public void lock(String account, Instant until) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(account);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(account);
+            if (entry == null) {
+                makeRoom(stripe, now);
+                entry = new Entry();
+                stripe.entries.put(account, entry);
+            }
+            entry.clearCounts();
+            entry.lockedUntil = until.toEpochMilli();
+        }
+    }
+
+    @Override
+    public Optional<Instant> getLockedUntil(String account) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(account);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(account);
+            if (entry == null || entry.lockedUntil <= now) {
+                return Optional.empty();
+            }
+            return Optional.of(Instant.ofEpochMilli(entry.lockedUntil));
+        }
+    }
+
+    private Stripe stripeFor(String account) {
+        return stripes[Math.floorMod(account.hashCode(), STRIPES)];
+    }
+
+    // Called with the stripe held
+    private void makeRoom(Stripe stripe, long now) {
+        if (stripe.entries.size() < maxEntriesPerStripe) {
+            return;
+        }
+        long windowStart = now - windowMs;
+        stripe.entries.values().removeIf(entry -> entry.lockedUntil <= now && entry.failuresSince(windowStart) == 0);
+
+        // Still full of live entries: give up the oldest-inserted one rather than grow
+        if (stripe.entries.size() >= maxEntriesPerStripe) {
+            Iterator<Map.Entry<String, Entry>> iterator = stripe.entries.entrySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private static final class Entry {
+        private final long[] bucketStarts = new long[BUCKETS];
+        private final int[] counts = new int[BUCKETS];
+        private long lockedUntil;
+
+        int failuresSince(long windowStart) {
+            int failures = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (bucketStarts[i] > windowStart) {
+                    failures += counts[i];
+                }
+            }
+            return failures;
+        }
+
+        void clearCounts() {
+            Arrays.fill(counts, 0);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.qkart.security;
 
+import com.qkart.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +11,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -25,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserTokenVersionCache userTokenVersionCache;
 
     @Override
     protected void doFilterInternal(
@@ -45,17 +47,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Verified once here; the subject of verified, unexpired claims needs no second check
+            Claims claims = jwtService.getVerifiedClaims(jwt);
+            userEmail = claims != null ? claims.getSubject() : null;
 
             // If we have a username and no authentication is set yet
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                AuthenticatedUser principal = claims.get(JwtService.USER_ID_CLAIM) != null
+                        ? AuthenticatedUser.fromClaims(claims)
+                        // Tokens issued before the user claims were added
+                        : AuthenticatedUser.fromUser((User) this.userDetailsService.loadUserByUsername(userEmail));
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userTokenVersionCache.isCurrent(principal.getId(), principal.getTokenVersion())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
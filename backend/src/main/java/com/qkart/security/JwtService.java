@@ -1,28 +1,41 @@
 package com.qkart.security;
 
+import com.qkart.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -32,6 +45,24 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
+    @Value("${jwt.claims-cache.max-entries}")
+    private int claimsCacheMaxEntries;
+
+    // Built once; decoding the secret and building the parser per call showed up on every request
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of a token -> its verified claims, valid until the token expires
+    private final Map<String, VerifiedClaims> verifiedClaimsCache = new ConcurrentHashMap<>();
+
+    private record VerifiedClaims(Claims claims, long expiresAtMillis) {}
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -41,10 +72,57 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid or expired.
+     * Verified claims are cached by token hash until the token expires, so repeat requests
+     * with the same token skip the signature check and the JSON parse.
+     */
+    public Claims getVerifiedClaims(String token) {
+        String tokenHash = hash(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedClaims cached = verifiedClaimsCache.get(tokenHash);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached.claims();
+            }
+            verifiedClaimsCache.remove(tokenHash, cached);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+
+        if (claims.getExpiration() != null) {
+            if (verifiedClaimsCache.size() >= claimsCacheMaxEntries) {
+                evictClaimsCache(now);
+            }
+            verifiedClaimsCache.put(tokenHash, new VerifiedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
     public String generateAccessToken(UserDetails userDetails) {
         return generateAccessToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * Access token carrying the user id, role and token version, so requests can be
+     * authenticated from the token alone.
+     */
+    public String generateAccessToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        return generateAccessToken(claims, user);
+    }
+
     public String generateAccessToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return buildToken(extraClaims, userDetails, accessTokenExpiration);
     }
@@ -59,25 +137,18 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        Claims claims = getVerifiedClaims(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
@@ -93,24 +164,24 @@ public class JwtService {
         return false;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // Drop expired entries first; if the cache is still full, start over rather than track recency
+    private void evictClaimsCache(long now) {
+        verifiedClaimsCache.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        if (verifiedClaimsCache.size() >= claimsCacheMaxEntries) {
+            verifiedClaimsCache.clear();
+        }
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
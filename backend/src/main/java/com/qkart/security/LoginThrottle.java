@@ -0,0 +1,127 @@
+package com.qkart.security;
+
+import com.qkart.dto.AuthLoadReport;
+import com.qkart.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket limits on login and registration, per client IP and per account, checked
+ * before any password hashing is queued. Idle buckets refill to full and are dropped when
+ * the number of tracked keys reaches its bound.
+ */
+@Component
+public class LoginThrottle {
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttledByIp = new LongAdder();
+    private final LongAdder throttledByAccount = new LongAdder();
+
+    @Value("${auth.throttle.ip.capacity}")
+    private int ipCapacity;
+
+    @Value("${auth.throttle.ip.refill-per-minute}")
+    private int ipRefillPerMinute;
+
+    @Value("${auth.throttle.account.capacity}")
+    private int accountCapacity;
+
+    @Value("${auth.throttle.account.refill-per-minute}")
+    private int accountRefillPerMinute;
+
+    @Value("${auth.throttle.max-tracked-keys}")
+    private int maxTrackedKeys;
+
+    public void checkLogin(String clientIp, String email) {
+        acquireForIp(clientIp);
+        long waitNanos = acquire("account:" + email.toLowerCase(), accountCapacity, accountRefillPerMinute);
+        if (waitNanos > 0) {
+            throttledByAccount.increment();
+            throw tooManyRequests(waitNanos);
+        }
+        allowed.increment();
+    }
+
+    public void checkRegister(String clientIp) {
+        acquireForIp(clientIp);
+        allowed.increment();
+    }
+
+    public AuthLoadReport.Throttle getReport() {
+        return new AuthLoadReport.Throttle(
+                allowed.sum(), throttledByIp.sum(), throttledByAccount.sum(), buckets.size());
+    }
+
+    private void acquireForIp(String clientIp) {
+        long waitNanos = acquire("ip:" + clientIp, ipCapacity, ipRefillPerMinute);
+        if (waitNanos > 0) {
+            throttledByIp.increment();
+            throw tooManyRequests(waitNanos);
+        }
+    }
+
+    private long acquire(String key, int capacity, int refillPerMinute) {
+        long now = System.nanoTime();
+        if (buckets.size() >= maxTrackedKeys && !buckets.containsKey(key)) {
+            evictIdle(now);
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute, now))
+                .tryAcquire(now);
+    }
+
+    // Full buckets carry no state worth keeping; if everything is busy, start over
+    private void evictIdle(long now) {
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        if (buckets.size() >= maxTrackedKeys) {
+            buckets.clear();
+        }
+    }
+
+    private TooManyRequestsException tooManyRequests(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return new TooManyRequestsException("Too many sign-in attempts. Please try again later.", retryAfterSeconds);
+    }
+
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Takes a token and returns 0, or returns how many nanoseconds until one is available.
+         */
+        synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
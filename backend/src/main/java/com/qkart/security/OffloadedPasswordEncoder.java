@@ -0,0 +1,143 @@
+package com.qkart.security;
+
+import com.qkart.dto.AuthLoadReport;
+import com.qkart.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt encoder that runs every hash and verification on a small dedicated pool. A login
+ * storm can then only use as many cores as the pool has threads, instead of every request
+ * thread. Work beyond the bounded queue, or left waiting past the timeout, is refused with
+ * a 429 so callers back off rather than pile up.
+ */
+@Component
+@Slf4j
+public class OffloadedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate = new BCryptPasswordEncoder();
+
+    @Value("${auth.password-hashing.threads}")
+    private int threads;
+
+    @Value("${auth.password-hashing.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${auth.password-hashing.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${auth.password-hashing.retry-after-seconds}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public AuthLoadReport.Hashing getReport() {
+        long count = completed.sum();
+        return new AuthLoadReport.Hashing(
+                threads,
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                count,
+                rejected.sum(),
+                timedOut.sum(),
+                count == 0 ? 0.0 : totalQueueWaitNanos.sum() / 1_000_000.0 / count,
+                count == 0 ? 0.0 : totalHashNanos.sum() / 1_000_000.0 / count,
+                maxHashNanos.get() / 1_000_000.0);
+    }
+
+    private <T> T run(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    long hashNanos = System.nanoTime() - startedAt;
+                    totalQueueWaitNanos.add(startedAt - submittedAt);
+                    totalHashNanos.add(hashNanos);
+                    maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full ({} waiting); rejecting request", queueCapacity);
+            throw new TooManyRequestsException("Too many sign-in attempts. Please try again shortly.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts. Please try again shortly.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.qkart.security;
+
+import com.qkart.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version per user, used to revoke access tokens before they expire. Logging
+ * out everywhere or locking the account bumps the user's version, and tokens carrying an
+ * older version are rejected. Versions are cached briefly so the check is usually free;
+ * this node evicts its entry on the bump, other nodes pick it up within the TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserTokenVersionCache {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    private record CachedVersion(int version, long loadedAt) {}
+
+    @Value("${jwt.user-version-cache.ttl-ms}")
+    private long ttlMs;
+
+    @Value("${jwt.user-version-cache.max-entries}")
+    private int maxEntries;
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || now - cached.loadedAt() > ttlMs) {
+            Integer version = userRepository.findTokenVersionById(userId).orElse(null);
+            if (version == null) {
+                versions.remove(userId);
+                return false;
+            }
+            if (versions.size() >= maxEntries) {
+                versions.clear();
+            }
+            cached = new CachedVersion(version, now);
+            versions.put(userId, cached);
+        }
+        return cached.version() == tokenVersion;
+    }
+
+    /**
+     * Drops the cached version once the current transaction commits, so the next request
+     * reads the bumped version rather than re-caching the old one.
+     */
+    public void evict(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.remove(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.remove(userId);
+            }
+        });
+    }
+}
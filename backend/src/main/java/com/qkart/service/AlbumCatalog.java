@@ -0,0 +1,121 @@
+package com.qkart.service;
+
+import com.qkart.dto.AlbumDTO;
+import com.qkart.dto.SongDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory snapshot of every album and song, read by the album endpoints instead of the
+ * database. A snapshot is built in one pass and never modified, and a rebuild swaps it in
+ * with a single volatile write, so readers see either the old catalog or the new one.
+ * Writers call {@link #markChanged()} and {@link com.qkart.job.AlbumCatalogRefreshJob}
+ * rebuilds it shortly after. The DTOs are shared between requests and must not be mutated.
+ */
+@Component
+public class AlbumCatalog {
+
+    private static final int TOP_SIZE = 10;
+
+    public record Snapshot(List<AlbumDTO> albums,
+                           Map<Long, AlbumDTO> albumsById,
+                           Map<Long, AlbumDTO> albumDetails,
+                           Map<Long, SongDTO> songs,
+                           List<AlbumDTO> featured,
+                           List<AlbumDTO> topAlbums,
+                           List<SongDTO> topSongs,
+                           Map<String, List<AlbumDTO>> albumsByGenre,
+                           List<String> genres) {}
+
+    private static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), Map.of(), Map.of(), List.of(), List.of(),
+            List.of(), Map.of(), List.of());
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+
+    public Snapshot get() {
+        return snapshot;
+    }
+
+    public Optional<AlbumDTO> findAlbum(Long id) {
+        return Optional.ofNullable(snapshot.albumDetails().get(id));
+    }
+
+    public void replace(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    /**
+     * Clears the changed flag and returns whether it was set. Call before reading the data
+     * for a rebuild, so a change committed during the rebuild triggers another one.
+     */
+    public boolean consumeChange() {
+        return changed.getAndSet(false);
+    }
+
+    /**
+     * Builds a snapshot from album summaries (without songs) and all songs. Album details
+     * carry their songs sorted by track number.
+     */
+    public static Snapshot build(List<AlbumDTO> albums, List<SongDTO> songs) {
+        Comparator<SongDTO> byTrack = Comparator.comparing(SongDTO::getTrackNumber,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Map<Long, List<SongDTO>> songsByAlbum = songs.stream()
+                .filter(song -> song.getAlbumId() != null)
+                .sorted(byTrack.thenComparing(SongDTO::getId))
+                .collect(Collectors.groupingBy(SongDTO::getAlbumId, Collectors.toUnmodifiableList()));
+
+        List<AlbumDTO> summaries = albums.stream()
+                .sorted(Comparator.comparing(AlbumDTO::getId))
+                .collect(Collectors.toUnmodifiableList());
+
+        Map<Long, AlbumDTO> details = summaries.stream()
+                .map(album -> album.toBuilder().songs(songsByAlbum.getOrDefault(album.getId(), List.of())).build())
+                .collect(Collectors.toUnmodifiableMap(AlbumDTO::getId, Function.identity()));
+
+        return new Snapshot(
+                summaries,
+                summaries.stream().collect(Collectors.toUnmodifiableMap(AlbumDTO::getId, Function.identity())),
+                details,
+                songs.stream().collect(Collectors.toUnmodifiableMap(SongDTO::getId, Function.identity())),
+                summaries.stream()
+                        .filter(album -> Boolean.TRUE.equals(album.getIsFeatured()))
+                        .collect(Collectors.toUnmodifiableList()),
+                summaries.stream()
+                        .sorted(Comparator.comparing((AlbumDTO album) -> valueOf(album.getLikes())).reversed())
+                        .limit(TOP_SIZE)
+                        .collect(Collectors.toUnmodifiableList()),
+                songs.stream()
+                        .sorted(Comparator.comparing((SongDTO song) -> valueOf(song.getPlays())).reversed())
+                        .limit(TOP_SIZE)
+                        .collect(Collectors.toUnmodifiableList()),
+                summaries.stream()
+                        .filter(album -> album.getGenre() != null)
+                        .collect(Collectors.collectingAndThen(
+                                Collectors.groupingBy(AlbumDTO::getGenre, Collectors.toUnmodifiableList()),
+                                Map::copyOf)),
+                summaries.stream()
+                        .map(AlbumDTO::getGenre)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .collect(Collectors.toUnmodifiableList()));
+    }
+
+    private static int valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.qkart.service;
+
+import com.qkart.repository.AlbumLikeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Album likes held in memory: a bitmap of liking user ids per album, which answers like
+ * status and dedupes repeat clicks, plus per-album {@link LongAdder} deltas and the
+ * changed (album, user) pairs that {@link com.qkart.job.AlbumLikeFlushJob} writes out in
+ * batches. An album's bitmap is loaded from the album_likes table on first use and is the
+ * source of truth from then on, so this assumes a single node owns like writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlbumLikeBuffer {
+
+    private final AlbumLikeRepository albumLikeRepository;
+
+    private final ConcurrentHashMap<Long, UserIdBitmap> likers = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Pending pending = new Pending();
+
+    /**
+     * Like changes taken by {@link #drain()}: the net change to each album's like count and
+     * the users whose like rows must be inserted or deleted, keyed by album id.
+     */
+    public record Changes(Map<Long, Long> likeDeltas,
+                          Map<Long, List<Long>> added,
+                          Map<Long, List<Long>> removed) {
+
+        public boolean isEmpty() {
+            return likeDeltas.isEmpty() && added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private record LikeKey(long albumId, long userId) {}
+
+    private static final class Pending {
+        private final ConcurrentHashMap<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+        // Each change flips the stored state, so a second change to the same pair cancels the first
+        private final ConcurrentHashMap<LikeKey, Boolean> changes = new ConcurrentHashMap<>();
+
+        void toggle(LikeKey key, boolean liked) {
+            changes.compute(key, (k, previous) -> previous == null ? liked : null);
+        }
+    }
+
+    /**
+     * Records a like. Returns false if the user already likes the album.
+     */
+    public boolean like(Long albumId, Long userId) {
+        return update(albumId, userId, true);
+    }
+
+    /**
+     * Removes a like. Returns false if the user didn't like the album.
+     */
+    public boolean unlike(Long albumId, Long userId) {
+        return update(albumId, userId, false);
+    }
+
+    public boolean isLiked(Long albumId, Long userId) {
+        return likers(albumId).contains(userId);
+    }
+
+    /**
+     * Loads the bitmaps of every album not yet in memory with a single query, so a page of
+     * like statuses costs at most one round trip.
+     */
+    public void preload(Collection<Long> albumIds) {
+        List<Long> missing = albumIds.stream()
+                .filter(albumId -> !likers.containsKey(albumId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, UserIdBitmap> loaded = new HashMap<>();
+        missing.forEach(albumId -> loaded.put(albumId, new UserIdBitmap()));
+        for (Object[] row : albumLikeRepository.findAlbumUserIdsByAlbumIdIn(missing)) {
+            loaded.get((Long) row[0]).add((Long) row[1]);
+        }
+        // An album loaded concurrently keeps its bitmap; it may already carry pending changes
+        loaded.forEach(likers::putIfAbsent);
+    }
+
+    /**
+     * Takes every change recorded so far. Changes recorded while the caller applies the
+     * result go into fresh maps and are picked up by the next drain.
+     */
+    public Changes drain() {
+        Pending drained;
+        swapLock.writeLock().lock();
+        try {
+            drained = pending;
+            pending = new Pending();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Map<Long, Long> deltas = new HashMap<>();
+        drained.deltas.forEach((albumId, delta) -> {
+            long sum = delta.sum();
+            if (sum != 0) {
+                deltas.put(albumId, sum);
+            }
+        });
+        Map<Long, List<Long>> added = new HashMap<>();
+        Map<Long, List<Long>> removed = new HashMap<>();
+        drained.changes.forEach((key, liked) -> (liked ? added : removed)
+                .computeIfAbsent(key.albumId(), id -> new ArrayList<>())
+                .add(key.userId()));
+        return new Changes(deltas, added, removed);
+    }
+
+    /**
+     * Puts back changes that could not be written, so they are retried on the next flush.
+     */
+    public void restore(Changes changes) {
+        swapLock.readLock().lock();
+        try {
+            Pending current = pending;
+            changes.likeDeltas().forEach((albumId, delta) ->
+                    current.deltas.computeIfAbsent(albumId, id -> new LongAdder()).add(delta));
+            changes.added().forEach((albumId, userIds) ->
+                    userIds.forEach(userId -> current.toggle(new LikeKey(albumId, userId), true)));
+            changes.removed().forEach((albumId, userIds) ->
+                    userIds.forEach(userId -> current.toggle(new LikeKey(albumId, userId), false)));
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private boolean update(Long albumId, Long userId, boolean liked) {
+        UserIdBitmap users = likers(albumId);
+
+        // Shared lock: the bitmap flip and its pending change must land in the same drain
+        swapLock.readLock().lock();
+        try {
+            boolean changed = liked ? users.add(userId) : users.remove(userId);
+            if (!changed) {
+                return false;
+            }
+            Pending current = pending;
+            current.deltas.computeIfAbsent(albumId, id -> new LongAdder()).add(liked ? 1 : -1);
+            current.toggle(new LikeKey(albumId, userId), liked);
+            return true;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private UserIdBitmap likers(Long albumId) {
+        // Each album loads once, before any change to it can be pending
+        return likers.computeIfAbsent(albumId, id -> {
+            UserIdBitmap users = new UserIdBitmap();
+            for (Long userId : albumLikeRepository.findUserIdsByAlbumId(id)) {
+                users.add(userId);
+            }
+            return users;
+        });
+    }
+}
@@ -1,15 +1,28 @@
 package com.qkart.service;
 
 import com.qkart.dto.AlbumDTO;
+import com.qkart.dto.AlbumLikeStatus;
 import com.qkart.dto.SongDTO;
+import com.qkart.exception.BadRequestException;
+import com.qkart.exception.ResourceNotFoundException;
 import com.qkart.model.Album;
+import com.qkart.model.AlbumLike;
 import com.qkart.model.Song;
+import com.qkart.repository.AlbumLikeRepository;
 import com.qkart.repository.AlbumRepository;
 import com.qkart.repository.SongRepository;
+import com.qkart.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,35 +31,32 @@ public class AlbumService {
 
     private final AlbumRepository albumRepository;
     private final SongRepository songRepository;
+    private final SongPlayBuffer songPlayBuffer;
+    private final TrendingTracker trendingTracker;
+    private final AlbumCatalog albumCatalog;
+    private final AlbumLikeBuffer albumLikeBuffer;
+    private final AlbumLikeRepository albumLikeRepository;
+    private final UserRepository userRepository;
 
     public List<AlbumDTO> getAllAlbums() {
-        return albumRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return albumCatalog.get().albums();
     }
 
     public AlbumDTO getAlbumById(Long id) {
-        return albumRepository.findById(id)
-                .map(this::toDTOWithSongs)
-                .orElseThrow(() -> new RuntimeException("Album not found"));
+        return albumCatalog.findAlbum(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Album not found"));
     }
 
     public List<AlbumDTO> getFeaturedAlbums() {
-        return albumRepository.findByIsFeaturedTrue().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return albumCatalog.get().featured();
     }
 
     public List<AlbumDTO> getTopAlbums() {
-        return albumRepository.findTop10ByOrderByLikesDesc().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return albumCatalog.get().topAlbums();
     }
 
     public List<AlbumDTO> getAlbumsByGenre(String genre) {
-        return albumRepository.findByGenre(genre).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return albumCatalog.get().albumsByGenre().getOrDefault(genre, List.of());
     }
 
     public List<AlbumDTO> searchAlbums(String query) {
@@ -56,18 +66,38 @@ public class AlbumService {
     }
 
     public List<String> getAllGenres() {
-        return albumRepository.findAllGenres();
+        return albumCatalog.get().genres();
     }
 
     public List<SongDTO> getSongsByAlbumId(Long albumId) {
-        return songRepository.findByAlbumId(albumId).stream()
-                .map(this::toSongDTO)
-                .collect(Collectors.toList());
+        return albumCatalog.findAlbum(albumId)
+                .map(AlbumDTO::getSongs)
+                .orElse(List.of());
     }
 
     public List<SongDTO> getTopSongs() {
-        return songRepository.findTop10ByOrderByPlaysDesc().stream()
-                .map(this::toSongDTO)
+        return albumCatalog.get().topSongs();
+    }
+
+    /**
+     * Songs with the most plays in the window, ranked by {@link TrendingTracker}.
+     */
+    public List<SongDTO> getTrendingSongs(String window, int limit) {
+        Map<Long, SongDTO> songs = albumCatalog.get().songs();
+        return trendingTracker.topSongs(TrendingTracker.Window.from(window), clampTrendingLimit(limit)).stream()
+                .map(songs::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Albums with the most plays and likes in the window, ranked by {@link TrendingTracker}.
+     */
+    public List<AlbumDTO> getTrendingAlbums(String window, int limit) {
+        Map<Long, AlbumDTO> albums = albumCatalog.get().albumsById();
+        return trendingTracker.topAlbums(TrendingTracker.Window.from(window), clampTrendingLimit(limit)).stream()
+                .map(albums::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -77,6 +107,147 @@ public class AlbumService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads every album and song in two queries and swaps in a new catalog snapshot.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildCatalog() {
+        List<AlbumDTO> albums = albumRepository.findAll().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        List<SongDTO> songs = songRepository.findAllWithAlbum().stream()
+                .map(this::toSongDTO)
+                .collect(Collectors.toList());
+        albumCatalog.replace(AlbumCatalog.build(albums, songs));
+    }
+
+    /**
+     * Counts a play. Plays are buffered in memory and written by {@link com.qkart.job.SongPlayFlushJob};
+     * ids of songs that don't exist are dropped when the buffer is flushed.
+     */
+    public void recordPlay(Long songId) {
+        if (songId == null || songId <= 0) {
+            throw new BadRequestException("Invalid song ID");
+        }
+        songPlayBuffer.record(songId);
+    }
+
+    public void recordPlays(List<Long> songIds) {
+        songIds.forEach(this::recordPlay);
+    }
+
+    /**
+     * Adds buffered plays to the songs table, with one update per distinct delta, and feeds
+     * the plays of existing songs to the trending tracker once the transaction commits.
+     */
+    @Transactional
+    public void applyPlayDeltas(Map<Long, Long> plays) {
+        Map<Long, List<Long>> idsByDelta = plays.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        idsByDelta.forEach((delta, ids) -> songRepository.incrementPlays(ids, delta.intValue()));
+
+        Map<Long, Long> songPlays = new HashMap<>();
+        Map<Long, Long> albumPlays = new HashMap<>();
+        for (Object[] row : songRepository.findAlbumIds(plays.keySet())) {
+            long count = plays.get((Long) row[0]);
+            songPlays.put((Long) row[0], count);
+            albumPlays.merge((Long) row[1], count, Long::sum);
+        }
+        afterCommit(() -> {
+            trendingTracker.recordSongs(songPlays);
+            trendingTracker.recordAlbums(albumPlays);
+            albumCatalog.markChanged();
+        });
+    }
+
+    public AlbumLikeStatus likeAlbum(Long albumId, Long userId) {
+        AlbumDTO album = getAlbumById(albumId);
+        albumLikeBuffer.like(albumId, userId);
+        return toLikeStatus(album, userId);
+    }
+
+    public AlbumLikeStatus unlikeAlbum(Long albumId, Long userId) {
+        AlbumDTO album = getAlbumById(albumId);
+        albumLikeBuffer.unlike(albumId, userId);
+        return toLikeStatus(album, userId);
+    }
+
+    /**
+     * Like status of a page of albums for one user, in request order. Unknown album ids are skipped.
+     */
+    public List<AlbumLikeStatus> getLikeStatuses(List<Long> albumIds, Long userId) {
+        Map<Long, AlbumDTO> albums = albumCatalog.get().albumsById();
+        List<AlbumDTO> known = albumIds.stream()
+                .distinct()
+                .map(albums::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        albumLikeBuffer.preload(known.stream().map(AlbumDTO::getId).collect(Collectors.toList()));
+        return known.stream()
+                .map(album -> toLikeStatus(album, userId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes buffered like changes: row deletes per album, one batched insert, and one
+     * count update per distinct delta. New likes feed the trending tracker after commit.
+     */
+    @Transactional
+    public void applyLikeChanges(AlbumLikeBuffer.Changes changes) {
+        changes.removed().forEach(albumLikeRepository::deleteByAlbumIdAndUserIdIn);
+
+        List<AlbumLike> added = new ArrayList<>();
+        changes.added().forEach((albumId, userIds) -> userIds.forEach(userId -> added.add(AlbumLike.builder()
+                .album(albumRepository.getReferenceById(albumId))
+                .user(userRepository.getReferenceById(userId))
+                .build())));
+        albumLikeRepository.saveAll(added);
+
+        Map<Long, List<Long>> idsByDelta = changes.likeDeltas().entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        idsByDelta.forEach((delta, ids) -> albumRepository.incrementLikes(ids, delta.intValue()));
+
+        Map<Long, Long> newLikes = changes.likeDeltas().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        afterCommit(() -> {
+            trendingTracker.recordAlbums(newLikes);
+            albumCatalog.markChanged();
+        });
+    }
+
+    private AlbumLikeStatus toLikeStatus(AlbumDTO album, Long userId) {
+        return AlbumLikeStatus.builder()
+                .albumId(album.getId())
+                .liked(albumLikeBuffer.isLiked(album.getId(), userId))
+                .likes(album.getLikes())
+                .build();
+    }
+
+    private int clampTrendingLimit(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be positive");
+        }
+        return Math.min(limit, trendingTracker.getTopK());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private AlbumDTO toDTO(Album album) {
         return AlbumDTO.builder()
                 .id(album.getId())
@@ -91,15 +262,6 @@ public class AlbumService {
                 .build();
     }
 
-    private AlbumDTO toDTOWithSongs(Album album) {
-        AlbumDTO dto = toDTO(album);
-        List<SongDTO> songs = album.getSongs().stream()
-                .map(this::toSongDTO)
-                .collect(Collectors.toList());
-        dto.setSongs(songs);
-        return dto;
-    }
-
     private SongDTO toSongDTO(Song song) {
         return SongDTO.builder()
                 .id(song.getId())
@@ -13,21 +13,32 @@ import com.qkart.model.User;
 import com.qkart.repository.CartRepository;
 import com.qkart.repository.RefreshTokenRepository;
 import com.qkart.repository.UserRepository;
+import com.qkart.security.FailedLoginStore;
 import com.qkart.security.JwtService;
+import com.qkart.security.UserTokenVersionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -40,94 +51,106 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserTokenVersionCache userTokenVersionCache;
+    private final FailedLoginStore failedLoginStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
+    @Value("${auth.refresh-token.max-sessions-per-user}")
+    private int maxSessionsPerUser;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private static final int MAX_FAILED_ATTEMPTS = 5;
-    private static final long LOCK_TIME_DURATION = 15 * 60 * 1000; // 15 minutes
 
-    @Transactional
+    /**
+     * Hashes the password with no transaction open, so a request waiting in the hashing queue
+     * doesn't hold a pooled connection; only the inserts run in a transaction.
+     */
     public AuthResponse register(RegisterRequest request) {
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email is already registered");
         }
 
-        // Create new user
-        User user = User.builder()
-                .name(request.getName())
-                .email(request.getEmail().toLowerCase())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(User.Role.CUSTOMER)
-                .emailVerified(false)
-                .build();
+        String passwordHash = passwordEncoder.encode(request.getPassword());
 
-        user = userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            // Create new user
+            User user = userRepository.save(User.builder()
+                    .name(request.getName())
+                    .email(request.getEmail().toLowerCase())
+                    .password(passwordHash)
+                    .role(User.Role.CUSTOMER)
+                    .emailVerified(false)
+                    .build());
 
-        // Create cart for the user
-        Cart cart = new Cart();
-        cart.setUser(user);
-        cartRepository.save(cart);
+            // Create cart for the user
+            Cart cart = new Cart();
+            cart.setUser(user);
+            cartRepository.save(cart);
 
-        // Generate tokens
-        String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = createRefreshToken(user);
+            // Generate tokens
+            String accessToken = jwtService.generateAccessToken(user);
+            String refreshToken = createRefreshToken(user);
 
-        log.info("New user registered: {}", user.getEmail());
+            log.info("New user registered: {}", user.getEmail());
 
-        return buildAuthResponse(user, accessToken, refreshToken);
+            return buildAuthResponse(user, accessToken, refreshToken);
+        });
     }
 
-    @Transactional
+    /**
+     * Verifies the password with no transaction open: the user lookup inside authenticate is
+     * a single autocommit query, so a login waiting in the hashing queue holds no pooled
+     * connection. Lock bookkeeping and the refresh-token write get short transactions of their own.
+     */
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail().toLowerCase())
-                .orElseThrow(() -> new BadCredentialsException("Invalid email or password"));
-
-        // Check if account is locked
-        if (user.isAccountLocked()) {
-            if (isLockTimeExpired(user)) {
-                unlockAccount(user);
-            } else {
-                throw new LockedException("Account is locked. Please try again later.");
-            }
+        String email = request.getEmail().toLowerCase();
+        if (failedLoginStore.getLockedUntil(email).isPresent()) {
+            throw new LockedException("Account is locked. Please try again later.");
         }
 
+        // A lock still recorded on the user row is rejected by authenticate before the password is checked
+        User user;
         try {
-            authenticationManager.authenticate(
+            Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
-                            request.getEmail().toLowerCase(),
+                            email,
                             request.getPassword()
                     )
             );
+            user = (User) authentication.getPrincipal();
 
             // Reset failed attempts on successful login
-            if (user.getFailedLoginAttempts() > 0) {
-                user.setFailedLoginAttempts(0);
-                userRepository.save(user);
-            }
+            failedLoginStore.clearFailures(email);
 
         } catch (BadCredentialsException e) {
-            handleFailedLogin(user);
+            handleFailedLogin(email);
             throw new BadCredentialsException("Invalid email or password");
         }
 
-        // Generate tokens
-        String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = createRefreshToken(user);
+        return transactionTemplate.execute(status -> {
+            // Generate tokens
+            String accessToken = jwtService.generateAccessToken(user);
+            String refreshToken = createRefreshToken(user);
 
-        log.info("User logged in: {}", user.getEmail());
+            log.info("User logged in: {}", user.getEmail());
 
-        return buildAuthResponse(user, accessToken, refreshToken);
+            return buildAuthResponse(user, accessToken, refreshToken);
+        });
     }
 
+    // Expired tokens are rejected, not deleted, so the failure can't roll the delete back
     @Transactional
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
+        String tokenHash = hashRefreshToken(request.getRefreshToken());
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
 
         if (refreshToken.isExpired()) {
-            refreshTokenRepository.delete(refreshToken);
             throw new UnauthorizedException("Refresh token has expired. Please login again.");
         }
 
@@ -136,17 +159,35 @@ public class AuthService {
         // Generate new access token
         String newAccessToken = jwtService.generateAccessToken(user);
 
-        // Optionally rotate refresh token
-        refreshTokenRepository.delete(refreshToken);
-        String newRefreshToken = createRefreshToken(user);
+        // Rotate the refresh token in place; the session row keeps its id and creation time
+        String newRefreshToken = generateRefreshToken();
+        Instant now = Instant.now();
+        int rotated = refreshTokenRepository.rotate(refreshToken.getId(), tokenHash,
+                hashRefreshToken(newRefreshToken), now.plusMillis(refreshTokenExpiration), now);
+        if (rotated != 1) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
 
         return buildAuthResponse(user, newAccessToken, newRefreshToken);
     }
 
     @Transactional
     public void logout(String refreshToken) {
-        refreshTokenRepository.findByToken(refreshToken)
-                .ifPresent(refreshTokenRepository::delete);
+        if (refreshToken != null) {
+            refreshTokenRepository.deleteByTokenHash(hashRefreshToken(refreshToken));
+        }
+    }
+
+    /**
+     * Deletes one chunk of expired refresh tokens and returns how many were removed.
+     */
+    @Transactional
+    public int purgeExpiredRefreshTokens(Instant now, int chunkSize) {
+        List<Long> ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return refreshTokenRepository.deleteByIdIn(ids);
     }
 
     @Transactional
@@ -154,48 +195,66 @@ public class AuthService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         refreshTokenRepository.deleteByUser(user);
+        revokeAccessTokens(user);
+        userRepository.save(user);
     }
 
     private String createRefreshToken(User user) {
-        // Delete existing refresh tokens for this user (optional: allow multiple sessions)
-        // refreshTokenRepository.deleteByUser(user);
+        // Keep at most maxSessionsPerUser sessions, evicting the oldest to make room
+        List<Long> sessionIds = refreshTokenRepository.findSessionIdsNewestFirst(user.getId());
+        if (sessionIds.size() >= maxSessionsPerUser) {
+            refreshTokenRepository.deleteByIdIn(sessionIds.subList(maxSessionsPerUser - 1, sessionIds.size()));
+        }
 
+        String token = generateRefreshToken();
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
-                .token(UUID.randomUUID().toString())
+                .tokenHash(hashRefreshToken(token))
                 .expiryDate(Instant.now().plusMillis(refreshTokenExpiration))
                 .build();
 
         refreshTokenRepository.save(refreshToken);
-        return refreshToken.getToken();
+        return token;
     }
 
-    private void handleFailedLogin(User user) {
-        int newFailedAttempts = user.getFailedLoginAttempts() + 1;
-        user.setFailedLoginAttempts(newFailedAttempts);
+    private static String generateRefreshToken() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
 
-        if (newFailedAttempts >= MAX_FAILED_ATTEMPTS) {
-            user.setAccountLocked(true);
-            user.setLockTime(LocalDateTime.now());
-            log.warn("Account locked for user: {} after {} failed attempts", user.getEmail(), newFailedAttempts);
+    private static String hashRefreshToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-
-        userRepository.save(user);
     }
 
-    private boolean isLockTimeExpired(User user) {
-        if (user.getLockTime() == null) {
-            return true;
+    // Failures are only counted in memory; the user row is written once the lock engages
+    private void handleFailedLogin(String email) {
+        int newFailedAttempts = failedLoginStore.recordFailure(email);
+        if (newFailedAttempts < MAX_FAILED_ATTEMPTS) {
+            return;
         }
-        LocalDateTime unlockTime = user.getLockTime().plusNanos(LOCK_TIME_DURATION * 1_000_000);
-        return LocalDateTime.now().isAfter(unlockTime);
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.findByEmail(email).ifPresent(user -> {
+            user.setFailedLoginAttempts(newFailedAttempts);
+            user.setAccountLocked(true);
+            user.setLockTime(LocalDateTime.now());
+            revokeAccessTokens(user);
+            userRepository.save(user);
+
+            failedLoginStore.lock(email, Instant.now().plus(User.LOCK_DURATION));
+            log.warn("Account locked for user: {} after {} failed attempts", user.getEmail(), newFailedAttempts);
+        }));
     }
 
-    private void unlockAccount(User user) {
-        user.setAccountLocked(false);
-        user.setFailedLoginAttempts(0);
-        user.setLockTime(null);
-        userRepository.save(user);
+    // Access tokens carry the version they were issued at; bumping it rejects all of them
+    private void revokeAccessTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userTokenVersionCache.evict(user.getId());
     }
 
     private AuthResponse buildAuthResponse(User user, String accessToken, String refreshToken) {
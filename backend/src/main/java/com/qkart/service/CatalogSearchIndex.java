@@ -0,0 +1,203 @@
+package com.qkart.service;
+
+import com.qkart.dto.AlbumDTO;
+import com.qkart.dto.ProductDTO;
+import com.qkart.dto.SongDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded full-text index over products, albums and songs, used by the unified catalog
+ * search. Each document type has its own sorted term dictionary with weighted posting
+ * lists, so query terms match words by prefix and each type ranks and limits on its own.
+ * The whole index is rebuilt off the request path and swapped in with one volatile write.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    // How often a search checks its deadline, in postings visited
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    /**
+     * A weighted text field of a document. Words of heavier fields rank higher.
+     */
+    record Field<T>(Function<T, String> text, int weight) {}
+
+    private static final List<Field<ProductDTO>> PRODUCT_FIELDS = List.of(
+            new Field<>(ProductDTO::getName, 6),
+            new Field<>(ProductDTO::getCategory, 4),
+            new Field<>(ProductDTO::getDescription, 2));
+
+    private static final List<Field<AlbumDTO>> ALBUM_FIELDS = List.of(
+            new Field<>(AlbumDTO::getTitle, 6),
+            new Field<>(AlbumDTO::getArtist, 4),
+            new Field<>(AlbumDTO::getGenre, 2));
+
+    private static final List<Field<SongDTO>> SONG_FIELDS = List.of(
+            new Field<>(SongDTO::getTitle, 6),
+            new Field<>(SongDTO::getArtist, 4),
+            new Field<>(SongDTO::getAlbumTitle, 2));
+
+    /**
+     * The indexed documents and the versions of the catalog data they were built from.
+     */
+    public record Snapshot(long productVersion,
+                           AlbumCatalog.Snapshot albumCatalog,
+                           TypeIndex<ProductDTO> products,
+                           TypeIndex<AlbumDTO> albums,
+                           TypeIndex<SongDTO> songs) {}
+
+    /**
+     * Ranked hits of one document type. Incomplete if the deadline passed before the
+     * search visited every matching posting.
+     */
+    public record Result<T>(List<T> hits, boolean complete) {}
+
+    private volatile Snapshot snapshot;
+
+    public Snapshot get() {
+        return snapshot;
+    }
+
+    public boolean isCurrent(long productVersion, AlbumCatalog.Snapshot albumCatalog) {
+        Snapshot current = snapshot;
+        return current != null && current.productVersion() == productVersion
+                && current.albumCatalog() == albumCatalog;
+    }
+
+    public void rebuild(long productVersion, List<ProductDTO> products, AlbumCatalog.Snapshot albumCatalog) {
+        snapshot = new Snapshot(productVersion, albumCatalog,
+                TypeIndex.build(products, PRODUCT_FIELDS, product -> count(product.getReviewCount())),
+                TypeIndex.build(albumCatalog.albums(), ALBUM_FIELDS, album -> count(album.getLikes())),
+                TypeIndex.build(new ArrayList<>(albumCatalog.songs().values()), SONG_FIELDS,
+                        song -> count(song.getPlays())));
+    }
+
+    private static long count(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Inverted index over the documents of one type. Terms are sorted so a query term finds
+     * every word it prefixes with two binary searches; postings hold document ordinals
+     * with the weight of the heaviest field the word appears in.
+     */
+    public static final class TypeIndex<T> {
+
+        private final List<T> documents;
+        private final long[] popularity;
+        private final String[] terms;
+        private final int[][] postings;
+        private final byte[][] weights;
+
+        private TypeIndex(List<T> documents, long[] popularity, String[] terms, int[][] postings, byte[][] weights) {
+            this.documents = documents;
+            this.popularity = popularity;
+            this.terms = terms;
+            this.postings = postings;
+            this.weights = weights;
+        }
+
+        static <T> TypeIndex<T> build(List<T> documents, List<Field<T>> fields, ToLongFunction<T> popularityOf) {
+            long[] popularity = new long[documents.size()];
+            TreeMap<String, Map<Integer, Integer>> dictionary = new TreeMap<>();
+            for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+                T document = documents.get(ordinal);
+                popularity[ordinal] = popularityOf.applyAsLong(document);
+                for (Field<T> field : fields) {
+                    for (String term : ReviewSearchIndex.tokenize(field.text().apply(document))) {
+                        dictionary.computeIfAbsent(term, t -> new HashMap<>())
+                                .merge(ordinal, field.weight(), Math::max);
+                    }
+                }
+            }
+
+            String[] terms = new String[dictionary.size()];
+            int[][] postings = new int[dictionary.size()][];
+            byte[][] weights = new byte[dictionary.size()][];
+            int index = 0;
+            for (Map.Entry<String, Map<Integer, Integer>> entry : dictionary.entrySet()) {
+                int[] ordinals = entry.getValue().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                byte[] termWeights = new byte[ordinals.length];
+                for (int i = 0; i < ordinals.length; i++) {
+                    termWeights[i] = entry.getValue().get(ordinals[i]).byteValue();
+                }
+                terms[index] = entry.getKey();
+                postings[index] = ordinals;
+                weights[index] = termWeights;
+                index++;
+            }
+            return new TypeIndex<>(List.copyOf(documents), popularity, terms, postings, weights);
+        }
+
+        public int size() {
+            return documents.size();
+        }
+
+        /**
+         * Documents matching every query term as a word prefix, best first. A whole-word
+         * match scores above a prefix match; ties go to the more popular document.
+         */
+        public Result<T> search(Set<String> queryTerms, int limit, long deadlineNanos) {
+            if (queryTerms.isEmpty() || limit <= 0) {
+                return new Result<>(List.of(), true);
+            }
+            if (System.nanoTime() > deadlineNanos) {
+                return new Result<>(List.of(), false);
+            }
+
+            Map<Integer, Integer> scores = null;
+            int visited = 0;
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Integer> termScores = new HashMap<>();
+                int from = lowerBound(queryTerm);
+                for (int t = from; t < terms.length && terms[t].startsWith(queryTerm); t++) {
+                    // Whole-word matches count double
+                    int boost = terms[t].length() == queryTerm.length() ? 2 : 1;
+                    int[] ordinals = postings[t];
+                    for (int i = 0; i < ordinals.length; i++) {
+                        if (scores == null || scores.containsKey(ordinals[i])) {
+                            termScores.merge(ordinals[i], weights[t][i] * boost, Math::max);
+                        }
+                        if (++visited % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                            return new Result<>(List.of(), false);
+                        }
+                    }
+                }
+
+                if (scores != null) {
+                    Map<Integer, Integer> previous = scores;
+                    termScores.replaceAll((ordinal, score) -> score + previous.get(ordinal));
+                }
+                scores = termScores;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            return new Result<>(scores.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                            .thenComparing(entry -> popularity[entry.getKey()], Comparator.reverseOrder())
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limit)
+                    .map(entry -> documents.get(entry.getKey()))
+                    .collect(Collectors.toList()), true);
+        }
+
+        private int lowerBound(String term) {
+            int index = Arrays.binarySearch(terms, term);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
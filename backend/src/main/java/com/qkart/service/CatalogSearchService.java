@@ -0,0 +1,97 @@
+package com.qkart.service;
+
+import com.qkart.dto.AlbumDTO;
+import com.qkart.dto.CatalogSearchResponse;
+import com.qkart.dto.ProductDTO;
+import com.qkart.dto.SongDTO;
+import com.qkart.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogSearchService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final CatalogVersion catalogVersion;
+    private final AlbumCatalog albumCatalog;
+    private final ProductService productService;
+
+    @Value("${search.limits.products}")
+    private int productLimit;
+
+    @Value("${search.limits.albums}")
+    private int albumLimit;
+
+    @Value("${search.limits.songs}")
+    private int songLimit;
+
+    @Value("${search.latency-budget-ms}")
+    private long latencyBudgetMs;
+
+    /**
+     * Searches every document type in one pass over the embedded index. Albums and songs
+     * are only searched for signed-in callers, like the album endpoints themselves. Groups
+     * are searched in order until the latency budget runs out.
+     */
+    public CatalogSearchResponse search(String query, Integer limit, boolean includeMusic) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs);
+        Set<String> terms = ReviewSearchIndex.tokenize(query);
+        CatalogSearchIndex.Snapshot index = catalogSearchIndex.get();
+        if (index == null) {
+            throw new IllegalStateException("Catalog search index is not built yet");
+        }
+
+        CatalogSearchIndex.Result<ProductDTO> products =
+                index.products().search(terms, limitOr(limit, productLimit), deadline);
+        CatalogSearchIndex.Result<AlbumDTO> albums = includeMusic
+                ? index.albums().search(terms, limitOr(limit, albumLimit), deadline)
+                : new CatalogSearchIndex.Result<>(List.of(), true);
+        CatalogSearchIndex.Result<SongDTO> songs = includeMusic
+                ? index.songs().search(terms, limitOr(limit, songLimit), deadline)
+                : new CatalogSearchIndex.Result<>(List.of(), true);
+
+        return CatalogSearchResponse.builder()
+                .query(query)
+                .terms(List.copyOf(terms))
+                .products(products.hits())
+                .albums(albums.hits())
+                .songs(songs.hits())
+                .complete(products.complete() && albums.complete() && songs.complete())
+                .tookMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started))
+                .build();
+    }
+
+    /**
+     * Rebuilds the index if products or the album catalog changed since the last build.
+     * The product version is read before loading, so a change during the load triggers
+     * another rebuild. Startup seeding doesn't bump the version, hence {@code force}.
+     */
+    public void refreshIndex(boolean force) {
+        long productVersion = catalogVersion.get();
+        AlbumCatalog.Snapshot albums = albumCatalog.get();
+        if (!force && catalogSearchIndex.isCurrent(productVersion, albums)) {
+            return;
+        }
+        catalogSearchIndex.rebuild(productVersion, productService.getAllProducts(), albums);
+    }
+
+    private static int limitOr(Integer limit, int defaultLimit) {
+        return limit != null ? limit : defaultLimit;
+    }
+}
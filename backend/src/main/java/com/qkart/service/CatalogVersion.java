@@ -0,0 +1,40 @@
+package com.qkart.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the product catalog data that read caches are keyed by. Any write
+ * that changes what a cached product view shows bumps it, which retires every entry cached
+ * under the previous version.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long get() {
+        return version.get();
+    }
+
+    /**
+     * Bumps the version once the current transaction commits, so a reader can never cache
+     * uncommitted data under the new version.
+     */
+    public void bump() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.qkart.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency estimator. Estimates never undercount; with conservative update an
+ * item only overcounts by the traffic of items it collides with in every row. Not
+ * thread-safe; callers synchronize.
+ */
+class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L};
+
+    private final long[][] counts;
+    private final int mask;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch depth must be 1-" + SEEDS.length
+                    + " and width a power of two");
+        }
+        counts = new long[depth][width];
+        mask = width - 1;
+    }
+
+    /**
+     * Adds {@code count} to the item and returns its new estimate.
+     */
+    long add(long item, long count) {
+        long estimate = estimate(item) + count;
+        for (int row = 0; row < counts.length; row++) {
+            int column = column(item, row);
+            if (counts[row][column] < estimate) {
+                counts[row][column] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    long estimate(long item) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            min = Math.min(min, counts[row][column(item, row)]);
+        }
+        return min;
+    }
+
+    void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private int column(long item, int row) {
+        long hash = (item + 1) * SEEDS[row];
+        hash ^= hash >>> 31;
+        return (int) (hash & mask);
+    }
+}
@@ -5,6 +5,7 @@ import com.qkart.model.Coupon;
 import com.qkart.model.CouponUsage;
 import com.qkart.model.Order;
 import com.qkart.model.User;
+import com.qkart.repository.CartItemRepository;
 import com.qkart.repository.CouponRepository;
 import com.qkart.repository.CouponUsageRepository;
 import com.qkart.repository.OrderRepository;
@@ -15,7 +16,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,15 +30,24 @@ public class CouponService {
     private final CouponUsageRepository couponUsageRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final CartItemRepository cartItemRepository;
+
+    // Valid coupons are re-read at most once per TTL; admin writes drop the snapshot immediately
+    private static final long RULE_CACHE_TTL_MS = 60_000;
+
+    private volatile List<Coupon> cachedRules;
+    private volatile long cachedRulesLoadedAt;
 
     public CouponService(CouponRepository couponRepository,
                         CouponUsageRepository couponUsageRepository,
                         UserRepository userRepository,
-                        OrderRepository orderRepository) {
+                        OrderRepository orderRepository,
+                        CartItemRepository cartItemRepository) {
         this.couponRepository = couponRepository;
         this.couponUsageRepository = couponUsageRepository;
         this.userRepository = userRepository;
         this.orderRepository = orderRepository;
+        this.cartItemRepository = cartItemRepository;
     }
 
     public List<CouponDTO> getAllCoupons() {
@@ -86,6 +100,7 @@ public class CouponService {
         }
 
         Coupon saved = couponRepository.save(coupon);
+        invalidateRuleCache();
         return new CouponDTO(saved);
     }
 
@@ -113,6 +128,7 @@ public class CouponService {
         coupon.setActive(request.isActive());
 
         Coupon saved = couponRepository.save(coupon);
+        invalidateRuleCache();
         return new CouponDTO(saved);
     }
 
@@ -122,6 +138,7 @@ public class CouponService {
             throw new RuntimeException("Coupon not found");
         }
         couponRepository.deleteById(id);
+        invalidateRuleCache();
     }
 
     @Transactional
@@ -130,6 +147,7 @@ public class CouponService {
                 .orElseThrow(() -> new RuntimeException("Coupon not found"));
         coupon.setActive(false);
         couponRepository.save(coupon);
+        invalidateRuleCache();
     }
 
     public CouponValidationResponse validateCoupon(ApplyCouponRequest request) {
@@ -191,6 +209,71 @@ public class CouponService {
         );
     }
 
+    /**
+     * Ranks every currently valid coupon against the user's cart subtotal in one pass.
+     * Rules come from the cached snapshot and per-user usage is read with a single grouped
+     * query, so the cost does not grow with the number of coupons. The result is advisory:
+     * checkout still re-validates the chosen code through {@link #validateCoupon}.
+     */
+    public BestCouponsResponse getBestCoupons(Long userId) {
+        BigDecimal orderAmount = cartItemRepository.getCartSubtotalByUserId(userId);
+        if (orderAmount.signum() <= 0) {
+            return new BestCouponsResponse(orderAmount, List.of());
+        }
+
+        Map<Long, Long> usageByCoupon = new HashMap<>();
+        for (Object[] row : couponUsageRepository.countUsagesByCouponForUser(userId)) {
+            usageByCoupon.put((Long) row[0], (Long) row[1]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CouponValidationResponse> applicable = new ArrayList<>();
+        for (Coupon coupon : getValidCouponRules()) {
+            if (now.isBefore(coupon.getValidFrom()) || now.isAfter(coupon.getValidUntil())) {
+                continue;
+            }
+            if (coupon.getUsageLimit() != null && coupon.getTimesUsed() >= coupon.getUsageLimit()) {
+                continue;
+            }
+            if (coupon.getUsageLimitPerUser() != null &&
+                usageByCoupon.getOrDefault(coupon.getId(), 0L) >= coupon.getUsageLimitPerUser()) {
+                continue;
+            }
+            if (coupon.getMinimumOrderValue() != null &&
+                orderAmount.compareTo(coupon.getMinimumOrderValue()) < 0) {
+                continue;
+            }
+
+            BigDecimal discountAmount = calculateDiscount(coupon, orderAmount);
+            applicable.add(CouponValidationResponse.valid(
+                    coupon.getCode(),
+                    coupon.getDiscountType().name(),
+                    coupon.getDiscountValue(),
+                    discountAmount,
+                    orderAmount,
+                    orderAmount.subtract(discountAmount)
+            ));
+        }
+
+        applicable.sort(Comparator.comparing(CouponValidationResponse::getDiscountAmount).reversed()
+                .thenComparing(CouponValidationResponse::getCode));
+        return new BestCouponsResponse(orderAmount, applicable);
+    }
+
+    private List<Coupon> getValidCouponRules() {
+        List<Coupon> rules = cachedRules;
+        if (rules == null || System.currentTimeMillis() - cachedRulesLoadedAt > RULE_CACHE_TTL_MS) {
+            rules = List.copyOf(couponRepository.findValidCoupons(LocalDateTime.now()));
+            cachedRulesLoadedAt = System.currentTimeMillis();
+            cachedRules = rules;
+        }
+        return rules;
+    }
+
+    private void invalidateRuleCache() {
+        cachedRules = null;
+    }
+
     private BigDecimal calculateDiscount(Coupon coupon, BigDecimal orderAmount) {
         BigDecimal discount;
 
@@ -0,0 +1,53 @@
+package com.qkart.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Local stand-in for Stripe, enabled with {@code payments.gateway=fake}. Intents are made
+ * up on the spot after {@code payments.gateway.fake.latency-ms}, which can be raised to
+ * reproduce a slow provider.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "fake")
+@Slf4j
+public class FakePaymentGateway implements PaymentGateway {
+
+    @Value("${payments.gateway.fake.latency-ms}")
+    private long latencyMs;
+
+    // Status reported for every intent looked up, e.g. to exercise reconciliation
+    @Value("${payments.gateway.fake.intent-status}")
+    private String intentStatus;
+
+    @Override
+    public CreatedIntent createPaymentIntent(IntentRequest request) {
+        simulateLatency();
+        String id = "pi_fake_" + UUID.randomUUID().toString().replace("-", "");
+        log.debug("Fake payment intent {} for {} {}", id, request.amountInCents(), request.currency());
+        return new CreatedIntent(id, id + "_secret_fake");
+    }
+
+    @Override
+    public IntentState retrievePaymentIntent(String intentId) {
+        simulateLatency();
+        String failureMessage = "requires_payment_method".equals(intentStatus) ? "Your card was declined." : null;
+        return new IntentState(intentId, intentStatus, failureMessage == null ? "pm_fake" : null, failureMessage);
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling fake payment gateway", e);
+        }
+    }
+}
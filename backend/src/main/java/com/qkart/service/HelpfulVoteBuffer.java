@@ -0,0 +1,108 @@
+package com.qkart.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory accumulator for helpful votes. Votes are buffered as (review, user) pairs and
+ * handed to the flush job in batches, so a burst of clicks on a popular review turns into a
+ * single row update. The review_helpful_votes table, with its unique (review, user) key, is
+ * what stops a user being counted twice, across restarts and nodes alike. The recent-voter
+ * sets here only spare repeat clicks a trip through the buffer: they hold two generations
+ * of keys so expiring them never needs a scan, and a generation is rotated early once it
+ * reaches its share of the size cap.
+ */
+@Component
+public class HelpfulVoteBuffer {
+
+    private record VoteKey(long reviewId, long userId) {}
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private volatile Set<VoteKey> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile Set<VoteKey> currentVoters = ConcurrentHashMap.newKeySet();
+    private volatile Set<VoteKey> previousVoters = ConcurrentHashMap.newKeySet();
+    private volatile long generationStartedAt = System.currentTimeMillis();
+
+    @Value("${reviews.helpful.dedupe-window-ms}")
+    private long dedupeWindowMs;
+
+    @Value("${reviews.helpful.dedupe-max-entries}")
+    private int dedupeMaxEntries;
+
+    public boolean hasVoted(Long reviewId, Long userId) {
+        VoteKey key = new VoteKey(reviewId, userId);
+        return currentVoters.contains(key) || previousVoters.contains(key);
+    }
+
+    /**
+     * Buffers a vote. Returns false if this user's vote on the review was seen recently.
+     */
+    public boolean record(Long reviewId, Long userId) {
+        VoteKey key = new VoteKey(reviewId, userId);
+        if (previousVoters.contains(key) || !currentVoters.add(key)) {
+            return false;
+        }
+
+        // Shared lock: many writers at once, only excluded while drain() swaps the set
+        swapLock.readLock().lock();
+        try {
+            pending.add(key);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Takes every vote recorded so far as voter ids keyed by review id. Votes recorded while
+     * the caller applies the result go into a fresh set and are picked up by the next drain.
+     */
+    public Map<Long, List<Long>> drain() {
+        Set<VoteKey> drained;
+        swapLock.writeLock().lock();
+        try {
+            drained = pending;
+            pending = ConcurrentHashMap.newKeySet();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        rotateVotersIfDue();
+
+        Map<Long, List<Long>> votes = new HashMap<>();
+        drained.forEach(key -> votes.computeIfAbsent(key.reviewId(), id -> new ArrayList<>()).add(key.userId()));
+        return votes;
+    }
+
+    /**
+     * Puts back votes that could not be written, so they are retried on the next flush.
+     */
+    public void restore(Map<Long, List<Long>> votes) {
+        swapLock.readLock().lock();
+        try {
+            votes.forEach((reviewId, userIds) -> userIds.forEach(userId -> pending.add(new VoteKey(reviewId, userId))));
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void rotateVotersIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - generationStartedAt >= dedupeWindowMs || currentVoters.size() >= dedupeMaxEntries / 2) {
+            previousVoters = currentVoters;
+            currentVoters = ConcurrentHashMap.newKeySet();
+            generationStartedAt = now;
+        }
+    }
+}
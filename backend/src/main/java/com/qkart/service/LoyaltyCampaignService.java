@@ -0,0 +1,170 @@
+package com.qkart.service;
+
+import com.qkart.dto.CreateLoyaltyCampaignRequest;
+import com.qkart.dto.LoyaltyCampaignDTO;
+import com.qkart.exception.BadRequestException;
+import com.qkart.exception.ResourceNotFoundException;
+import com.qkart.model.LoyaltyAccount;
+import com.qkart.model.LoyaltyCampaign;
+import com.qkart.model.PointsTransaction;
+import com.qkart.repository.LoyaltyAccountRepository;
+import com.qkart.repository.LoyaltyCampaignRepository;
+import com.qkart.repository.PointsTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class LoyaltyCampaignService {
+
+    private final LoyaltyCampaignRepository loyaltyCampaignRepository;
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final PointsTransactionRepository pointsTransactionRepository;
+    private final LoyaltyService loyaltyService;
+
+    @Transactional
+    public LoyaltyCampaign createCampaign(CreateLoyaltyCampaignRequest request) {
+        LoyaltyAccount.LoyaltyTier targetTier = null;
+        if (request.getTargetTier() != null && !request.getTargetTier().isBlank()) {
+            try {
+                targetTier = LoyaltyAccount.LoyaltyTier.valueOf(request.getTargetTier().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown loyalty tier: " + request.getTargetTier());
+            }
+        }
+
+        LoyaltyCampaign campaign = LoyaltyCampaign.builder()
+                .name(request.getName())
+                .points(request.getPoints())
+                .targetTier(targetTier)
+                .build();
+
+        return loyaltyCampaignRepository.save(campaign);
+    }
+
+    public List<LoyaltyCampaignDTO> getCampaigns() {
+        return loyaltyCampaignRepository.findAllByOrderByCreatedAtDesc().stream()
+                .map(LoyaltyCampaignDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    public LoyaltyCampaign getCampaign(Long id) {
+        return loyaltyCampaignRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Campaign not found"));
+    }
+
+    public List<Long> getRunningCampaignIds() {
+        return loyaltyCampaignRepository.findByStatus(LoyaltyCampaign.CampaignStatus.RUNNING).stream()
+                .map(LoyaltyCampaign::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pauses a running campaign. The status is changed with a conditional update rather than a
+     * save of the loaded row, so a chunk committing at the same time keeps its checkpoint.
+     */
+    @Transactional
+    public LoyaltyCampaign pause(Long id) {
+        return transition(id, List.of(LoyaltyCampaign.CampaignStatus.RUNNING),
+                LoyaltyCampaign.CampaignStatus.PAUSED, "paused");
+    }
+
+    /**
+     * Sets a paused or failed campaign running again; the job picks up from its checkpoint.
+     */
+    @Transactional
+    public LoyaltyCampaign resume(Long id) {
+        return transition(id, List.of(LoyaltyCampaign.CampaignStatus.PAUSED, LoyaltyCampaign.CampaignStatus.FAILED),
+                LoyaltyCampaign.CampaignStatus.RUNNING, "resumed");
+    }
+
+    /**
+     * Ends a run as COMPLETED or FAILED, only if the campaign is still RUNNING, so a pause
+     * that lands while the job finishes its last chunk is not overwritten. Returns false if
+     * the status had already moved.
+     */
+    @Transactional
+    public boolean finishRun(Long id, LoyaltyCampaign.CampaignStatus status, String failureMessage) {
+        LocalDateTime completedAt = status == LoyaltyCampaign.CampaignStatus.COMPLETED ? LocalDateTime.now() : null;
+        return loyaltyCampaignRepository.transitionStatus(id, LoyaltyCampaign.CampaignStatus.RUNNING,
+                status, failureMessage, completedAt) == 1;
+    }
+
+    private LoyaltyCampaign transition(Long id, List<LoyaltyCampaign.CampaignStatus> from,
+                                       LoyaltyCampaign.CampaignStatus to, String action) {
+        for (LoyaltyCampaign.CampaignStatus expected : from) {
+            if (loyaltyCampaignRepository.transitionStatus(id, expected, to, null, null) == 1) {
+                return getCampaign(id);
+            }
+        }
+        LoyaltyCampaign campaign = getCampaign(id);
+        throw new BadRequestException("A " + campaign.getStatus().name().toLowerCase()
+                + " campaign cannot be " + action);
+    }
+
+    public List<Long> findNextAccountIds(LoyaltyCampaign campaign, int chunkSize) {
+        PageRequest firstChunk = PageRequest.of(0, chunkSize);
+        if (campaign.getTargetTier() == null) {
+            return loyaltyAccountRepository.findIdsAfter(campaign.getLastProcessedAccountId(), firstChunk);
+        }
+        return loyaltyAccountRepository.findIdsByTierAfter(
+                campaign.getTargetTier(), campaign.getLastProcessedAccountId(), firstChunk);
+    }
+
+    /**
+     * Credits one chunk of accounts: a batched insert of ledger rows, at most one set-based
+     * tier update per tier and the checkpoint move, all in one transaction. The checkpoint
+     * update is conditional on the previous value, so a chunk is never credited twice.
+     */
+    @Transactional
+    public void creditChunk(LoyaltyCampaign campaign, List<Long> accountIds) {
+        int points = campaign.getPoints();
+        List<PointsTransaction> transactions = new ArrayList<>(accountIds.size());
+        Map<LoyaltyAccount.LoyaltyTier, List<Long>> idsByTier = new EnumMap<>(LoyaltyAccount.LoyaltyTier.class);
+
+        Map<Long, Long> qualifyingPoints = new HashMap<>();
+        for (Object[] row : pointsTransactionRepository.sumEarnedSinceByAccount(
+                accountIds, loyaltyService.getTierQualifyingSince())) {
+            qualifyingPoints.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        for (Object[] row : loyaltyAccountRepository.findLedgerTotals(accountIds)) {
+            Long accountId = (Long) row[0];
+            int balance = ((Number) row[1]).intValue() + points;
+            long tierPoints = qualifyingPoints.getOrDefault(accountId, 0L) + points;
+
+            transactions.add(PointsTransaction.builder()
+                    .loyaltyAccount(loyaltyAccountRepository.getReferenceById(accountId))
+                    .points(points)
+                    .type(PointsTransaction.TransactionType.BONUS)
+                    .description("Campaign bonus: " + campaign.getName())
+                    .balanceAfter(balance)
+                    .build());
+
+            idsByTier.computeIfAbsent(LoyaltyAccount.LoyaltyTier.forPoints(tierPoints), tier -> new ArrayList<>())
+                    .add(accountId);
+        }
+
+        pointsTransactionRepository.saveAll(transactions);
+
+        LocalDateTime now = LocalDateTime.now();
+        idsByTier.forEach((tier, ids) -> loyaltyAccountRepository.updateTier(ids, tier, now));
+
+        Long lastAccountId = accountIds.get(accountIds.size() - 1);
+        int updated = loyaltyCampaignRepository.advanceCheckpoint(
+                campaign.getId(), campaign.getLastProcessedAccountId(), lastAccountId, transactions.size());
+        if (updated != 1) {
+            throw new IllegalStateException("Campaign " + campaign.getId() + " checkpoint moved concurrently");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.qkart.service;
+
+import com.qkart.model.LoyaltyAccount;
+import com.qkart.model.PointsTransaction;
+import com.qkart.repository.LoyaltyAccountRepository;
+import com.qkart.repository.PointsTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nightly loyalty maintenance for one chunk of accounts: expires points older than the
+ * expiry cutoff and moves each account to the tier earned in the qualifying window.
+ * Points are spent oldest-first, so the expirable amount is whatever was earned before
+ * the cutoff and has not yet been covered by redemptions or earlier expirations.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoyaltyMaintenanceService {
+
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final PointsTransactionRepository pointsTransactionRepository;
+
+    public record ChunkResult(int accountsExpired, long pointsExpired, int tierChanges) {}
+
+    @Transactional
+    public ChunkResult processChunk(List<Long> accountIds, LocalDateTime expiryCutoff, LocalDateTime qualifyingSince) {
+        Map<Long, Long> qualifyingPoints = new HashMap<>();
+        List<Long> expiryCandidates = new ArrayList<>();
+
+        for (Object[] row : pointsTransactionRepository.summarizeLedger(accountIds, expiryCutoff, qualifyingSince)) {
+            qualifyingPoints.put((Long) row[0], ((Number) row[3]).longValue());
+            if (getUnspentBeforeCutoff(row) > 0) {
+                expiryCandidates.add((Long) row[0]);
+            }
+        }
+
+        int accountsExpired = 0;
+        long pointsExpired = 0;
+        if (!expiryCandidates.isEmpty()) {
+            // Lock only the accounts that have something to expire, then re-read their ledgers
+            // so a redemption committed since the first pass is not expired a second time
+            loyaltyAccountRepository.findAllByIdForUpdate(expiryCandidates);
+
+            Map<Long, Long> unspent = new HashMap<>();
+            for (Object[] row : pointsTransactionRepository.summarizeLedger(expiryCandidates, expiryCutoff, qualifyingSince)) {
+                unspent.put((Long) row[0], getUnspentBeforeCutoff(row));
+            }
+
+            List<PointsTransaction> expirations = new ArrayList<>();
+            for (Object[] row : loyaltyAccountRepository.findLedgerTotals(expiryCandidates)) {
+                Long accountId = (Long) row[0];
+                long balance = ((Number) row[1]).longValue();
+                long expired = Math.min(balance, unspent.getOrDefault(accountId, 0L));
+                if (expired <= 0) {
+                    continue;
+                }
+
+                expirations.add(PointsTransaction.builder()
+                        .loyaltyAccount(loyaltyAccountRepository.getReferenceById(accountId))
+                        .points((int) -expired)
+                        .type(PointsTransaction.TransactionType.EXPIRED)
+                        .description("Points earned before " + expiryCutoff.toLocalDate() + " expired")
+                        .balanceAfter((int) (balance - expired))
+                        .build());
+                accountsExpired++;
+                pointsExpired += expired;
+            }
+            pointsTransactionRepository.saveAll(expirations);
+        }
+
+        Map<LoyaltyAccount.LoyaltyTier, List<Long>> idsByTier = new EnumMap<>(LoyaltyAccount.LoyaltyTier.class);
+        for (Long accountId : accountIds) {
+            LoyaltyAccount.LoyaltyTier tier = LoyaltyAccount.LoyaltyTier.forPoints(qualifyingPoints.getOrDefault(accountId, 0L));
+            idsByTier.computeIfAbsent(tier, t -> new ArrayList<>()).add(accountId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int tierChanges = 0;
+        for (Map.Entry<LoyaltyAccount.LoyaltyTier, List<Long>> entry : idsByTier.entrySet()) {
+            tierChanges += loyaltyAccountRepository.updateTier(entry.getValue(), entry.getKey(), now);
+        }
+
+        return new ChunkResult(accountsExpired, pointsExpired, tierChanges);
+    }
+
+    // row is [accountId, earnedBeforeCutoff, totalDebited, qualifyingPoints]
+    private long getUnspentBeforeCutoff(Object[] row) {
+        return ((Number) row[1]).longValue() - ((Number) row[2]).longValue();
+    }
+}
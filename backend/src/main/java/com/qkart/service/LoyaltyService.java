@@ -1,7 +1,10 @@
 package com.qkart.service;
 
 import com.qkart.dto.LoyaltyAccountDTO;
+import com.qkart.dto.PointsLedgerTotals;
 import com.qkart.dto.PointsTransactionDTO;
+import com.qkart.dto.PointsTransactionHistoryResponse;
+import com.qkart.exception.BadRequestException;
 import com.qkart.model.LoyaltyAccount;
 import com.qkart.model.PointsTransaction;
 import com.qkart.model.User;
@@ -9,13 +12,31 @@ import com.qkart.repository.LoyaltyAccountRepository;
 import com.qkart.repository.PointsTransactionRepository;
 import com.qkart.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Loyalty points are kept in an append-only ledger: every earn, redemption and bonus is a
+ * {@link PointsTransaction} row and the balance is the account snapshot plus the tail of
+ * transactions not yet compacted into it. Earning never rewrites the account
+ * row; redemptions lock it so the balance check and the debit are atomic.
+ * Tiers are based on the points earned in a trailing qualifying window, so they can drop
+ * when a member stops shopping.
+ */
 @Service
 @RequiredArgsConstructor
 public class LoyaltyService {
@@ -27,6 +48,14 @@ public class LoyaltyService {
     private static final int POINTS_PER_DOLLAR = 10;
     private static final int BIRTHDAY_BONUS_POINTS = 500;
     private static final double POINTS_TO_DOLLAR_RATIO = 100.0; // 100 points = $1
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+
+    // Open bounds for history queries without a month filter
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Value("${loyalty.tier.qualifying-months}")
+    private int tierQualifyingMonths;
 
     @Transactional
     public LoyaltyAccount getOrCreateAccount(Long userId) {
@@ -48,9 +77,10 @@ public class LoyaltyService {
         return loyaltyAccountRepository.save(account);
     }
 
+    @Transactional
     public LoyaltyAccountDTO getAccountDTO(Long userId) {
         LoyaltyAccount account = getOrCreateAccount(userId);
-        return LoyaltyAccountDTO.fromEntity(account);
+        return toDTO(account, getLedgerTotals(account));
     }
 
     @Transactional
@@ -61,11 +91,8 @@ public class LoyaltyService {
         double multiplier = account.getTier().getMultiplier();
         int earnedPoints = (int) (basePoints * multiplier);
 
-        account.setPointsBalance(account.getPointsBalance() + earnedPoints);
-        account.setLifetimePoints(account.getLifetimePoints() + earnedPoints);
-
-        updateTier(account);
-        loyaltyAccountRepository.save(account);
+        PointsLedgerTotals totals = getLedgerTotals(account).plus(earnedPoints, earnedPoints);
+        long qualifyingPoints = getQualifyingPoints(account) + earnedPoints;
 
         PointsTransaction transaction = PointsTransaction.builder()
                 .loyaltyAccount(account)
@@ -74,28 +101,29 @@ public class LoyaltyService {
                 .description("Points earned from order #" + orderId)
                 .orderId(orderId)
                 .multiplierApplied(multiplier)
-                .balanceAfter(account.getPointsBalance())
+                .balanceAfter(totals.getBalance().intValue())
                 .build();
 
         pointsTransactionRepository.save(transaction);
+        updateTier(account, qualifyingPoints);
 
         return PointsTransactionDTO.fromEntity(transaction);
     }
 
     @Transactional
     public PointsTransactionDTO redeemPoints(Long userId, Integer points, Long orderId) {
-        LoyaltyAccount account = getOrCreateAccount(userId);
-
-        if (account.getPointsBalance() < points) {
-            throw new RuntimeException("Insufficient points balance");
-        }
-
-        if (points <= 0) {
+        if (points == null || points <= 0) {
             throw new RuntimeException("Points must be positive");
         }
 
-        account.setPointsBalance(account.getPointsBalance() - points);
-        loyaltyAccountRepository.save(account);
+        // Row lock serialises redemptions for the account while the ledger is summed
+        LoyaltyAccount account = loyaltyAccountRepository.findByUserIdForUpdate(userId)
+                .orElseGet(() -> createAccount(userId));
+
+        PointsLedgerTotals totals = getLedgerTotals(account);
+        if (totals.getBalance() < points) {
+            throw new RuntimeException("Insufficient points balance");
+        }
 
         PointsTransaction transaction = PointsTransaction.builder()
                 .loyaltyAccount(account)
@@ -103,7 +131,7 @@ public class LoyaltyService {
                 .type(PointsTransaction.TransactionType.REDEEMED)
                 .description("Points redeemed for order #" + orderId)
                 .orderId(orderId)
-                .balanceAfter(account.getPointsBalance())
+                .balanceAfter(totals.getBalance().intValue() - points)
                 .build();
 
         pointsTransactionRepository.save(transaction);
@@ -113,7 +141,8 @@ public class LoyaltyService {
 
     @Transactional
     public PointsTransactionDTO claimBirthdayBonus(Long userId) {
-        LoyaltyAccount account = getOrCreateAccount(userId);
+        LoyaltyAccount account = loyaltyAccountRepository.findByUserIdForUpdate(userId)
+                .orElseGet(() -> createAccount(userId));
 
         if (account.getBirthday() == null) {
             throw new RuntimeException("Birthday not set");
@@ -131,19 +160,16 @@ public class LoyaltyService {
             throw new RuntimeException("Birthday bonus already claimed this year");
         }
 
-        account.setPointsBalance(account.getPointsBalance() + BIRTHDAY_BONUS_POINTS);
-        account.setLifetimePoints(account.getLifetimePoints() + BIRTHDAY_BONUS_POINTS);
+        PointsLedgerTotals totals = getLedgerTotals(account).plus(BIRTHDAY_BONUS_POINTS, BIRTHDAY_BONUS_POINTS);
         account.setBirthdayBonusYear(today.getYear());
-
-        updateTier(account);
-        loyaltyAccountRepository.save(account);
+        updateTier(account, getQualifyingPoints(account) + BIRTHDAY_BONUS_POINTS);
 
         PointsTransaction transaction = PointsTransaction.builder()
                 .loyaltyAccount(account)
                 .points(BIRTHDAY_BONUS_POINTS)
                 .type(PointsTransaction.TransactionType.BONUS)
                 .description("Birthday bonus for " + today.getYear())
-                .balanceAfter(account.getPointsBalance())
+                .balanceAfter(totals.getBalance().intValue())
                 .build();
 
         pointsTransactionRepository.save(transaction);
@@ -156,16 +182,102 @@ public class LoyaltyService {
         LoyaltyAccount account = getOrCreateAccount(userId);
         account.setBirthday(birthday);
         loyaltyAccountRepository.save(account);
-        return LoyaltyAccountDTO.fromEntity(account);
+        return toDTO(account, getLedgerTotals(account));
     }
 
+    /**
+     * Folds the oldest uncompacted ledger rows into the account snapshot. Exactly the rows
+     * summed here are flagged as compacted, so a transaction that commits late simply stays in
+     * the tail until the next run instead of falling behind a time or id watermark. The account
+     * row lock serialises this with redemptions and with a concurrent compaction of the account.
+     */
+    @Transactional
+    public boolean compactLedger(Long accountId) {
+        List<LoyaltyAccount> locked = loyaltyAccountRepository.findAllByIdForUpdate(List.of(accountId));
+        if (locked.isEmpty()) {
+            return false;
+        }
+
+        List<Object[]> tail = pointsTransactionRepository.findTail(accountId, PageRequest.of(0, COMPACTION_BATCH_SIZE));
+        if (tail.isEmpty()) {
+            return false;
+        }
+
+        List<Long> transactionIds = new ArrayList<>(tail.size());
+        int balance = 0;
+        int lifetime = 0;
+        for (Object[] row : tail) {
+            int points = ((Number) row[1]).intValue();
+            transactionIds.add((Long) row[0]);
+            balance += points;
+            if (points > 0) {
+                lifetime += points;
+            }
+        }
+        pointsTransactionRepository.markCompacted(transactionIds);
+
+        LoyaltyAccount account = locked.get(0);
+        account.setPointsBalance(account.getPointsBalance() + balance);
+        account.setLifetimePoints(account.getLifetimePoints() + lifetime);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
     public Page<PointsTransactionDTO> getTransactionHistory(Long userId, Pageable pageable) {
-        LoyaltyAccount account = getOrCreateAccount(userId);
+        Optional<LoyaltyAccount> account = loyaltyAccountRepository.findByUserId(userId);
+        if (account.isEmpty()) {
+            return Page.empty(pageable);
+        }
         return pointsTransactionRepository
-                .findByLoyaltyAccountIdOrderByCreatedAtDesc(account.getId(), pageable)
+                .findByLoyaltyAccountIdOrderByCreatedAtDesc(account.get().getId(), pageable)
                 .map(PointsTransactionDTO::fromEntity);
     }
 
+    /**
+     * Cursor-based history, newest first. The cursor is the (createdAt, id) of the last row
+     * returned, so each page is an index seek regardless of how deep the member scrolls,
+     * and no count query is run. An optional month narrows the seek to that month.
+     */
+    @Transactional(readOnly = true)
+    public PointsTransactionHistoryResponse getTransactionHistory(Long userId, String cursor,
+                                                                  YearMonth month, int size) {
+        LocalDateTime from = month != null ? month.atDay(1).atStartOfDay() : HISTORY_START;
+        LocalDateTime beforeCreatedAt = month != null ? month.plusMonths(1).atDay(1).atStartOfDay() : HISTORY_END;
+        Long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            beforeCreatedAt = LocalDateTime.parse(position[0]);
+            beforeId = Long.valueOf(position[1]);
+        }
+
+        Optional<LoyaltyAccount> account = loyaltyAccountRepository.findByUserId(userId);
+        if (account.isEmpty()) {
+            return PointsTransactionHistoryResponse.builder().transactions(List.of()).build();
+        }
+
+        // Fetch one extra row to learn whether there is a next page
+        List<PointsTransaction> rows = pointsTransactionRepository.findHistoryBefore(
+                account.get().getId(), from, beforeCreatedAt, beforeId, PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        PointsTransaction last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return PointsTransactionHistoryResponse.builder()
+                .transactions(rows.stream().map(PointsTransactionDTO::fromEntity).collect(Collectors.toList()))
+                .nextCursor(hasNext ? encodeCursor(last) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Start of the trailing window whose earned points decide an account's tier.
+     */
+    public LocalDateTime getTierQualifyingSince() {
+        return LocalDateTime.now().minusMonths(tierQualifyingMonths);
+    }
+
     public Double calculateDiscount(Integer points) {
         return points / POINTS_TO_DOLLAR_RATIO;
     }
@@ -174,17 +286,38 @@ public class LoyaltyService {
         return (int) (discountAmount * POINTS_TO_DOLLAR_RATIO);
     }
 
-    private void updateTier(LoyaltyAccount account) {
-        int lifetimePoints = account.getLifetimePoints();
+    private PointsLedgerTotals getLedgerTotals(LoyaltyAccount account) {
+        PointsLedgerTotals tail = pointsTransactionRepository.sumTail(account.getId());
+        return tail.plus(account.getPointsBalance(), account.getLifetimePoints());
+    }
+
+    private String encodeCursor(PointsTransaction transaction) {
+        String position = transaction.getCreatedAt() + "|" + transaction.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (lifetimePoints >= LoyaltyAccount.LoyaltyTier.PLATINUM.getRequiredPoints()) {
-            account.setTier(LoyaltyAccount.LoyaltyTier.PLATINUM);
-        } else if (lifetimePoints >= LoyaltyAccount.LoyaltyTier.GOLD.getRequiredPoints()) {
-            account.setTier(LoyaltyAccount.LoyaltyTier.GOLD);
-        } else if (lifetimePoints >= LoyaltyAccount.LoyaltyTier.SILVER.getRequiredPoints()) {
-            account.setTier(LoyaltyAccount.LoyaltyTier.SILVER);
-        } else {
-            account.setTier(LoyaltyAccount.LoyaltyTier.BRONZE);
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid history cursor");
         }
     }
+
+    // Must run before the new transaction is saved, otherwise the auto-flush counts it twice
+    private long getQualifyingPoints(LoyaltyAccount account) {
+        return pointsTransactionRepository.sumEarnedSince(account.getId(), getTierQualifyingSince());
+    }
+
+    private LoyaltyAccountDTO toDTO(LoyaltyAccount account, PointsLedgerTotals totals) {
+        return LoyaltyAccountDTO.fromEntity(account, totals.getBalance().intValue(),
+                totals.getLifetime().intValue(), (int) getQualifyingPoints(account));
+    }
+
+    private void updateTier(LoyaltyAccount account, long qualifyingPoints) {
+        account.setTier(LoyaltyAccount.LoyaltyTier.forPoints(qualifyingPoints));
+    }
 }
@@ -107,12 +107,14 @@ public class OrderService {
         return toDTO(savedOrder);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUserId(Long userId) {
         return orderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long orderId) {
         return orderRepository.findById(orderId)
                 .map(this::toDTO)
@@ -0,0 +1,26 @@
+package com.qkart.service;
+
+import java.util.Map;
+
+/**
+ * Remote payment provider. Calls go over the network and must never be made while a
+ * database transaction is open. {@link StripePaymentGateway} talks to Stripe;
+ * {@link FakePaymentGateway} answers locally with a configurable delay, for tests and load
+ * runs without a Stripe account.
+ */
+public interface PaymentGateway {
+
+    CreatedIntent createPaymentIntent(IntentRequest request);
+
+    /**
+     * Current state of an intent, with the provider's status string (for Stripe one of
+     * requires_payment_method, processing, succeeded, canceled, ...).
+     */
+    IntentState retrievePaymentIntent(String intentId);
+
+    record IntentRequest(long amountInCents, String currency, Map<String, String> metadata) {}
+
+    record CreatedIntent(String id, String clientSecret) {}
+
+    record IntentState(String id, String status, String paymentMethod, String failureMessage) {}
+}
@@ -0,0 +1,85 @@
+package com.qkart.service;
+
+import com.qkart.model.Order;
+import com.qkart.model.Payment;
+import com.qkart.repository.OrderRepository;
+import com.qkart.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies provider states found by the reconciliation job to a chunk of unsettled payments.
+ * Rows are locked and re-checked, so a webhook that landed in the meantime wins; the
+ * changes go out as one batch of updates at commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationService {
+
+    /**
+     * Statuses still waiting on the provider. PROCESSING is included so a payment whose final
+     * webhook was lost after it started processing is still polled to the end.
+     */
+    public static final Set<Payment.PaymentStatus> UNSETTLED =
+            Collections.unmodifiableSet(EnumSet.of(Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PROCESSING));
+
+    private final PaymentRepository paymentRepository;
+    private final OrderRepository orderRepository;
+
+    /**
+     * Returns how many payments moved to each status.
+     */
+    @Transactional
+    public Map<Payment.PaymentStatus, Long> applyChunk(Map<Long, PaymentGateway.IntentState> states) {
+        Map<Payment.PaymentStatus, Long> changed = new EnumMap<>(Payment.PaymentStatus.class);
+        List<Long> confirmedOrderIds = new ArrayList<>();
+
+        for (Payment payment : paymentRepository.findAllByIdForUpdate(states.keySet())) {
+            PaymentGateway.IntentState state = states.get(payment.getId());
+            Payment.PaymentStatus status = toPaymentStatus(state);
+            if (!UNSETTLED.contains(payment.getStatus()) || status == null || status == payment.getStatus()) {
+                continue;
+            }
+
+            payment.setStatus(status);
+            if (status == Payment.PaymentStatus.SUCCEEDED) {
+                payment.setPaymentMethod(state.paymentMethod());
+                if (payment.getOrder() != null) {
+                    confirmedOrderIds.add(payment.getOrder().getId());
+                }
+            } else if (status == Payment.PaymentStatus.FAILED) {
+                payment.setFailureMessage(state.failureMessage());
+            }
+            changed.merge(status, 1L, Long::sum);
+        }
+
+        for (Order order : orderRepository.findAllById(confirmedOrderIds)) {
+            if (order.getStatus() == Order.OrderStatus.PENDING) {
+                order.setStatus(Order.OrderStatus.CONFIRMED);
+            }
+        }
+        return changed;
+    }
+
+    // Null when the intent is still waiting on the customer
+    private static Payment.PaymentStatus toPaymentStatus(PaymentGateway.IntentState state) {
+        return switch (state.status()) {
+            case "succeeded" -> Payment.PaymentStatus.SUCCEEDED;
+            case "processing" -> Payment.PaymentStatus.PROCESSING;
+            case "canceled" -> Payment.PaymentStatus.CANCELLED;
+            case "requires_payment_method" -> state.failureMessage() != null ? Payment.PaymentStatus.FAILED : null;
+            default -> null;
+        };
+    }
+}
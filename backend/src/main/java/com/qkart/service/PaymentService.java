@@ -1,30 +1,29 @@
 package com.qkart.service;
 
-import com.qkart.config.StripeConfig;
 import com.qkart.dto.CreatePaymentRequest;
 import com.qkart.dto.PaymentResponse;
-import com.qkart.exception.BadRequestException;
 import com.qkart.exception.ResourceNotFoundException;
+import com.qkart.exception.TooManyRequestsException;
 import com.qkart.model.Order;
 import com.qkart.model.Payment;
-import com.qkart.model.User;
 import com.qkart.repository.OrderRepository;
 import com.qkart.repository.PaymentRepository;
 import com.qkart.repository.UserRepository;
-import com.stripe.exception.SignatureVerificationException;
-import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
-import com.stripe.net.Webhook;
-import com.stripe.param.PaymentIntentCreateParams;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -34,89 +33,81 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
-    private final StripeConfig stripeConfig;
+    private final PaymentGateway paymentGateway;
 
-    @Transactional
+    @Value("${payments.gateway.max-concurrent-calls}")
+    private int maxConcurrentCalls;
+
+    @Value("${payments.gateway.bulkhead-wait-ms}")
+    private long bulkheadWaitMs;
+
+    private Semaphore gatewayBulkhead;
+
+    @PostConstruct
+    void init() {
+        gatewayBulkhead = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Creates the provider intent first, with no transaction open, then records the payment
+     * in one short write. Provider calls are capped by a bulkhead so a slow provider can't
+     * tie up every request thread.
+     */
     public PaymentResponse createPaymentIntent(CreatePaymentRequest request) {
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsById(request.getUserId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        if (request.getOrderId() != null && !orderRepository.existsById(request.getOrderId())) {
+            throw new ResourceNotFoundException("Order not found");
+        }
 
         String currency = request.getCurrency() != null ? request.getCurrency() : "usd";
 
-        try {
-            // Create Stripe PaymentIntent
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(request.getAmount().multiply(BigDecimal.valueOf(100)).longValue()) // Convert to cents
-                    .setCurrency(currency)
-                    .setAutomaticPaymentMethods(
-                            PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
-                                    .setEnabled(true)
-                                    .build()
-                    )
-                    .putMetadata("userId", user.getId().toString())
-                    .build();
-
-            if (request.getOrderId() != null) {
-                params = PaymentIntentCreateParams.builder()
-                        .setAmount(request.getAmount().multiply(BigDecimal.valueOf(100)).longValue())
-                        .setCurrency(currency)
-                        .setAutomaticPaymentMethods(
-                                PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
-                                        .setEnabled(true)
-                                        .build()
-                        )
-                        .putMetadata("userId", user.getId().toString())
-                        .putMetadata("orderId", request.getOrderId().toString())
-                        .build();
-            }
-
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
-
-            // Save payment record
-            Payment payment = Payment.builder()
-                    .stripePaymentIntentId(paymentIntent.getId())
-                    .stripeClientSecret(paymentIntent.getClientSecret())
-                    .user(user)
-                    .amount(request.getAmount())
-                    .currency(currency.toUpperCase())
-                    .status(Payment.PaymentStatus.PENDING)
-                    .build();
-
-            if (request.getOrderId() != null) {
-                Order order = orderRepository.findById(request.getOrderId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-                payment.setOrder(order);
-            }
-
-            Payment saved = paymentRepository.save(payment);
-
-            return PaymentResponse.builder()
-                    .id(saved.getId())
-                    .clientSecret(paymentIntent.getClientSecret())
-                    .paymentIntentId(paymentIntent.getId())
-                    .amount(request.getAmount())
-                    .currency(currency.toUpperCase())
-                    .status(saved.getStatus().name())
-                    .build();
-
-        } catch (StripeException e) {
-            log.error("Stripe error creating payment intent: {}", e.getMessage());
-            throw new BadRequestException("Failed to create payment: " + e.getMessage());
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("userId", request.getUserId().toString());
+        if (request.getOrderId() != null) {
+            metadata.put("orderId", request.getOrderId().toString());
         }
-    }
 
-    @Transactional
-    public void handleWebhook(String payload, String signature) {
-        Event event;
+        PaymentGateway.CreatedIntent intent = callGateway(() -> paymentGateway.createPaymentIntent(
+                new PaymentGateway.IntentRequest(
+                        request.getAmount().multiply(BigDecimal.valueOf(100)).longValue(), // Convert to cents
+                        currency,
+                        metadata)));
+
+        // Save payment record
+        Payment payment = Payment.builder()
+                .stripePaymentIntentId(intent.id())
+                .stripeClientSecret(intent.clientSecret())
+                .user(userRepository.getReferenceById(request.getUserId()))
+                .amount(request.getAmount())
+                .currency(currency.toUpperCase())
+                .status(Payment.PaymentStatus.PENDING)
+                .build();
 
-        try {
-            event = Webhook.constructEvent(payload, signature, stripeConfig.getWebhookSecret());
-        } catch (SignatureVerificationException e) {
-            log.error("Webhook signature verification failed: {}", e.getMessage());
-            throw new BadRequestException("Invalid webhook signature");
+        if (request.getOrderId() != null) {
+            payment.setOrder(orderRepository.getReferenceById(request.getOrderId()));
         }
 
-        log.info("Received Stripe webhook event: {}", event.getType());
+        Payment saved = paymentRepository.save(payment);
+
+        return PaymentResponse.builder()
+                .id(saved.getId())
+                .clientSecret(intent.clientSecret())
+                .paymentIntentId(intent.id())
+                .amount(request.getAmount())
+                .currency(currency.toUpperCase())
+                .status(saved.getStatus().name())
+                .build();
+    }
+
+    /**
+     * Applies a verified webhook event. Called by the webhook processor, inside its batch
+     * transaction.
+     */
+    @Transactional
+    public void applyWebhookEvent(Event event) {
+        log.info("Processing Stripe webhook event: {}", event.getType());
 
         switch (event.getType()) {
             case "payment_intent.succeeded" -> handlePaymentSuccess(event);
@@ -204,4 +195,24 @@ public class PaymentService {
                 .status(payment.getStatus().name())
                 .build();
     }
+
+    private <T> T callGateway(Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = gatewayBulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the payment gateway", e);
+        }
+        if (!acquired) {
+            log.warn("Payment gateway bulkhead full; rejecting request");
+            throw new TooManyRequestsException("Payment service is busy. Please try again shortly.", 1);
+        }
+
+        try {
+            return call.get();
+        } finally {
+            gatewayBulkhead.release();
+        }
+    }
 }
@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
 
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll().stream()
@@ -117,6 +118,7 @@ public class ProductService {
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = toEntity(productDTO);
         Product saved = productRepository.save(product);
+        catalogVersion.bump();
         return toDTO(saved);
     }
 
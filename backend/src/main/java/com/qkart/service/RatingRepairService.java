@@ -0,0 +1,95 @@
+package com.qkart.service;
+
+import com.qkart.dto.RatingRepairReport;
+import com.qkart.model.Product;
+import com.qkart.repository.ProductRepository;
+import com.qkart.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Re-derives the rating aggregates of a chunk of products from the reviews table. Review
+ * counts for the whole chunk come from one grouped query; drifted products are corrected
+ * on the loaded entities and written back as one batch of updates at commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class RatingRepairService {
+
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final CatalogVersion catalogVersion;
+
+    public record ChunkResult(long reviewsCounted, List<RatingRepairReport.Diff> diffs) {}
+
+    @Transactional
+    public ChunkResult repairChunk(List<Long> productIds, boolean dryRun) {
+        // Lock before counting when writing, so a review committed meanwhile can't be overwritten:
+        // its delta update waits for us and is applied on top of the corrected values
+        List<Product> products = dryRun
+                ? productRepository.findAllById(productIds)
+                : productRepository.findAllByIdForUpdate(productIds);
+
+        Map<Long, long[]> histograms = new HashMap<>();
+        long reviewsCounted = 0;
+        for (Object[] row : reviewRepository.countByProductAndRating(productIds)) {
+            int rating = (Integer) row[1];
+            long count = ((Number) row[2]).longValue();
+            histograms.computeIfAbsent((Long) row[0], id -> new long[6])[rating] = count;
+            reviewsCounted += count;
+        }
+
+        List<RatingRepairReport.Diff> diffs = new ArrayList<>();
+        for (Product product : products) {
+            long[] histogram = histograms.getOrDefault(product.getId(), new long[6]);
+            long count = 0;
+            long sum = 0;
+            for (int rating = 1; rating <= 5; rating++) {
+                count += histogram[rating];
+                sum += rating * histogram[rating];
+            }
+            double rating = count > 0 ? (double) sum / count : 0.0;
+
+            if (!isDrifted(product, histogram, sum, count, rating)) {
+                continue;
+            }
+            diffs.add(new RatingRepairReport.Diff(product.getId(), product.getRating(), product.getReviewCount(),
+                    rating, (int) count));
+
+            if (!dryRun) {
+                product.setRatingSum(sum);
+                product.setOneStarCount((int) histogram[1]);
+                product.setTwoStarCount((int) histogram[2]);
+                product.setThreeStarCount((int) histogram[3]);
+                product.setFourStarCount((int) histogram[4]);
+                product.setFiveStarCount((int) histogram[5]);
+                product.setReviewCount((int) count);
+                product.setRating(rating);
+            }
+        }
+
+        if (!dryRun && !diffs.isEmpty()) {
+            catalogVersion.bump();
+        }
+        return new ChunkResult(reviewsCounted, diffs);
+    }
+
+    private boolean isDrifted(Product product, long[] histogram, long sum, long count, double rating) {
+        return product.getRatingSum() != sum
+                || product.getOneStarCount() != histogram[1]
+                || product.getTwoStarCount() != histogram[2]
+                || product.getThreeStarCount() != histogram[3]
+                || product.getFourStarCount() != histogram[4]
+                || product.getFiveStarCount() != histogram[5]
+                || !Objects.equals(product.getReviewCount(), (int) count)
+                || product.getRating() == null
+                || Math.abs(product.getRating() - rating) > 1e-9;
+    }
+}
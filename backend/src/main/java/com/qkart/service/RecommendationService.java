@@ -10,6 +10,7 @@ import com.qkart.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -24,6 +25,7 @@ public class RecommendationService {
 
     private static final int MAX_RECOMMENDATIONS = 8;
 
+    @Transactional(readOnly = true)
     public List<RecommendationDTO> getPersonalizedRecommendations(Long userId) {
         List<RecommendationDTO> recommendations = new ArrayList<>();
 
@@ -53,6 +55,7 @@ public class RecommendationService {
         return recommendations;
     }
 
+    @Transactional(readOnly = true)
     public List<RecommendationDTO> getProductRecommendations(Long productId) {
         List<RecommendationDTO> recommendations = new ArrayList<>();
 
@@ -76,6 +79,7 @@ public class RecommendationService {
         return recommendations;
     }
 
+    @Transactional(readOnly = true)
     public RecommendationDTO getGuestRecommendations() {
         return getPopularProducts();
     }
@@ -0,0 +1,250 @@
+package com.qkart.service;
+
+import com.qkart.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over review titles and comments, one per product. A product's
+ * index is built from the database on its first search and then kept current by the review
+ * write paths, so a search is a posting-list intersection rather than a scan of the reviews
+ * table. Posting lists are skip-list sets, so reads never block on concurrent updates.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReviewSearchIndex {
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final ReviewRepository reviewRepository;
+
+    private final Map<Long, ProductIndex> indexes = new ConcurrentHashMap<>();
+
+    // Write counters of the builds in flight, so a build that raced a committed write can tell
+    // its data is stale; entries only live while a product's index is being built
+    private final Map<Long, Set<AtomicLong>> buildsInFlight = new ConcurrentHashMap<>();
+
+    @Value("${reviews.search.max-indexed-products}")
+    private int maxIndexedProducts;
+
+    /**
+     * Ids of the reviews of a product that contain every query term, newest first.
+     */
+    public List<Long> search(Long productId, Set<String> terms, int limit) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        ProductIndex index = getIndex(productId);
+        List<ConcurrentSkipListSet<Long>> postings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            ConcurrentSkipListSet<Long> posting = index.postings.get(term);
+            if (posting == null) {
+                return List.of();
+            }
+            postings.add(posting);
+        }
+
+        // Walk the rarest term's postings and probe the others
+        postings.sort(Comparator.comparingInt(Set::size));
+        ConcurrentSkipListSet<Long> rarest = postings.get(0);
+        List<ConcurrentSkipListSet<Long>> others = postings.subList(1, postings.size());
+
+        List<Long> matches = new ArrayList<>(limit);
+        Iterator<Long> ids = rarest.descendingIterator();
+        while (ids.hasNext() && matches.size() < limit) {
+            Long reviewId = ids.next();
+            if (others.stream().allMatch(posting -> posting.contains(reviewId))) {
+                matches.add(reviewId);
+            }
+        }
+        return matches;
+    }
+
+    public void onReviewSaved(Long productId, Long reviewId, String title, String comment) {
+        afterCommit(productId, index -> index.put(reviewId, tokenize(title, comment)));
+    }
+
+    public void onReviewDeleted(Long productId, Long reviewId) {
+        afterCommit(productId, index -> index.remove(reviewId));
+    }
+
+    /**
+     * Distinct lower-cased terms of the given texts, in order of first appearance.
+     */
+    public static Set<String> tokenize(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            Matcher matcher = TOKEN.matcher(text);
+            while (matcher.find()) {
+                String term = matcher.group().toLowerCase(Locale.ROOT);
+                if (term.length() >= MIN_TERM_LENGTH) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Escapes the text for HTML and wraps every occurrence of a query term in {@code <mark>}.
+     */
+    public static String highlight(String text, Set<String> terms) {
+        if (text == null) {
+            return null;
+        }
+
+        StringBuilder highlighted = new StringBuilder(text.length() + 32);
+        Matcher matcher = TOKEN.matcher(text);
+        int end = 0;
+        while (matcher.find()) {
+            if (terms.contains(matcher.group().toLowerCase(Locale.ROOT))) {
+                appendEscaped(highlighted, text, end, matcher.start());
+                highlighted.append("<mark>");
+                appendEscaped(highlighted, text, matcher.start(), matcher.end());
+                highlighted.append("</mark>");
+                end = matcher.end();
+            }
+        }
+        appendEscaped(highlighted, text, end, text.length());
+        return highlighted.toString();
+    }
+
+    private ProductIndex getIndex(Long productId) {
+        while (true) {
+            ProductIndex index = indexes.get(productId);
+            if (index != null) {
+                index.lastUsed = System.currentTimeMillis();
+                return index;
+            }
+
+            AtomicLong writes = new AtomicLong();
+            buildsInFlight.compute(productId, (id, builds) -> {
+                Set<AtomicLong> tracked = builds != null ? builds : ConcurrentHashMap.newKeySet();
+                tracked.add(writes);
+                return tracked;
+            });
+            try {
+                ProductIndex built = new ProductIndex();
+                for (Object[] row : reviewRepository.findSearchDocumentsByProductId(productId)) {
+                    built.put((Long) row[0], tokenize((String) row[1], (String) row[2]));
+                }
+
+                ProductIndex installed = indexes.putIfAbsent(productId, built);
+                if (installed != null) {
+                    return installed;
+                }
+                // A write committed while we were reading; its update may be missing, so rebuild
+                if (writes.get() != 0) {
+                    indexes.remove(productId, built);
+                    continue;
+                }
+                evictIfFull();
+                return built;
+            } finally {
+                buildsInFlight.computeIfPresent(productId, (id, builds) -> {
+                    builds.remove(writes);
+                    return builds.isEmpty() ? null : builds;
+                });
+            }
+        }
+    }
+
+    private void afterCommit(Long productId, Consumer<ProductIndex> update) {
+        Runnable apply = () -> {
+            Set<AtomicLong> builds = buildsInFlight.get(productId);
+            if (builds != null) {
+                builds.forEach(AtomicLong::incrementAndGet);
+            }
+            ProductIndex index = indexes.get(productId);
+            if (index != null) {
+                update.accept(index);
+            }
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void evictIfFull() {
+        while (indexes.size() > maxIndexedProducts) {
+            indexes.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                    .ifPresent(entry -> indexes.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static class ProductIndex {
+        private final Map<String, ConcurrentSkipListSet<Long>> postings = new ConcurrentHashMap<>();
+        private final Map<Long, Set<String>> termsByReview = new ConcurrentHashMap<>();
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private synchronized void put(Long reviewId, Set<String> terms) {
+            remove(reviewId);
+            termsByReview.put(reviewId, terms);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new ConcurrentSkipListSet<>()).add(reviewId);
+            }
+        }
+
+        private synchronized void remove(Long reviewId) {
+            Set<String> terms = termsByReview.remove(reviewId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                ConcurrentSkipListSet<Long> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(reviewId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term, posting);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -3,13 +3,17 @@ package com.qkart.service;
 import com.qkart.dto.CreateReviewRequest;
 import com.qkart.dto.ProductRatingSummary;
 import com.qkart.dto.ReviewDTO;
+import com.qkart.dto.ReviewPageResponse;
+import com.qkart.dto.ReviewSearchResponse;
 import com.qkart.exception.BadRequestException;
 import com.qkart.exception.ResourceNotFoundException;
 import com.qkart.model.Product;
 import com.qkart.model.Review;
+import com.qkart.model.ReviewHelpfulVote;
 import com.qkart.model.User;
 import com.qkart.repository.OrderRepository;
 import com.qkart.repository.ProductRepository;
+import com.qkart.repository.ReviewHelpfulVoteRepository;
 import com.qkart.repository.ReviewRepository;
 import com.qkart.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,9 +23,18 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,39 +45,106 @@ public class ReviewService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final ReviewHelpfulVoteRepository reviewHelpfulVoteRepository;
+    private final HelpfulVoteBuffer helpfulVoteBuffer;
+    private final CatalogVersion catalogVersion;
+    private final ReviewSearchIndex reviewSearchIndex;
+
+    private static final int SUMMARY_CACHE_MAX_ENTRIES = 10_000;
+    private static final LocalDateTime LATEST_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Summaries cached for one catalog version; a version bump starts a fresh map
+    private volatile SummaryCache summaryCache = new SummaryCache(-1, new ConcurrentHashMap<>());
+
+    private record SummaryCache(long catalogVersion, Map<Long, ProductRatingSummary> summaries) {}
 
     public Page<ReviewDTO> getProductReviews(Long productId, String sortBy, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
 
-        Page<Review> reviews = switch (sortBy != null ? sortBy.toLowerCase() : "newest") {
-            case "highest" -> reviewRepository.findByProductIdOrderByRatingDesc(productId, pageable);
-            case "helpful" -> reviewRepository.findByProductIdOrderByHelpfulCountDesc(productId, pageable);
-            default -> reviewRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable);
+        return switch (sortBy != null ? sortBy.toLowerCase() : "newest") {
+            case "highest" -> reviewRepository.findHighestByProductId(productId, pageable);
+            case "helpful" -> reviewRepository.findMostHelpfulByProductId(productId, pageable);
+            default -> reviewRepository.findNewestByProductId(productId, pageable);
+        };
+    }
+
+    /**
+     * Keyset-paged reviews for a product. The cursor holds the sort key and id of the last
+     * review returned; each page seeks past it on the matching (product_id, key, id) index
+     * and no count query is run.
+     */
+    public ReviewPageResponse getProductReviewPage(Long productId, String sortBy, String cursor, int size) {
+        String sort = sortBy != null ? sortBy.toLowerCase() : "newest";
+        String[] position = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+        Long beforeId = position != null ? parseCursorId(position[1]) : Long.MAX_VALUE;
+        // Fetch one extra row to learn whether there is a next page
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<ReviewDTO> reviews = switch (sort) {
+            case "highest" -> reviewRepository.findHighestByProductIdBefore(productId,
+                    position != null ? parseCursorInt(position[0]) : Integer.MAX_VALUE, beforeId, limit);
+            case "helpful" -> reviewRepository.findMostHelpfulByProductIdBefore(productId,
+                    position != null ? parseCursorInt(position[0]) : Integer.MAX_VALUE, beforeId, limit);
+            default -> reviewRepository.findNewestByProductIdBefore(productId,
+                    position != null ? parseCursorTime(position[0]) : LATEST_CREATED_AT, beforeId, limit);
         };
 
-        return reviews.map(this::toDTO);
+        boolean hasNext = reviews.size() > size;
+        if (hasNext) {
+            reviews = reviews.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            ReviewDTO last = reviews.get(reviews.size() - 1);
+            Object sortKey = switch (sort) {
+                case "highest" -> last.getRating();
+                case "helpful" -> last.getHelpfulCount();
+                default -> last.getCreatedAt();
+            };
+            nextCursor = encodeCursor(sortKey + "|" + last.getId());
+        }
+
+        return ReviewPageResponse.builder()
+                .reviews(reviews)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
     public ProductRatingSummary getProductRatingSummary(Long productId) {
-        Double avgRating = reviewRepository.getAverageRatingByProductId(productId);
-        Long totalReviews = reviewRepository.getReviewCountByProductId(productId);
-        List<Object[]> distribution = reviewRepository.getRatingDistributionByProductId(productId);
+        return productRepository.findById(productId)
+                .map(ProductRatingSummary::fromProduct)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    }
 
-        Map<Integer, Long> ratingDistribution = new HashMap<>();
-        for (int i = 1; i <= 5; i++) {
-            ratingDistribution.put(i, 0L);
+    /**
+     * Rating summaries for a page of product tiles, in request order. Unknown ids are left
+     * out. Products not cached for the current catalog version are read in one query.
+     */
+    public List<ProductRatingSummary> getProductRatingSummaries(List<Long> productIds) {
+        // Read the version before loading, so data read before a bump is never cached after it
+        long version = catalogVersion.get();
+        SummaryCache cache = summaryCache;
+        if (cache.catalogVersion() != version || cache.summaries().size() > SUMMARY_CACHE_MAX_ENTRIES) {
+            cache = new SummaryCache(version, new ConcurrentHashMap<>());
+            summaryCache = cache;
         }
-        for (Object[] row : distribution) {
-            Integer rating = (Integer) row[0];
-            Long count = (Long) row[1];
-            ratingDistribution.put(rating, count);
+
+        Map<Long, ProductRatingSummary> summaries = cache.summaries();
+        List<Long> ids = productIds.stream().distinct().collect(Collectors.toList());
+        List<Long> missing = ids.stream()
+                .filter(id -> !summaries.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing)
+                    .forEach(product -> summaries.put(product.getId(), ProductRatingSummary.fromProduct(product)));
         }
 
-        return ProductRatingSummary.builder()
-                .averageRating(avgRating != null ? avgRating : 0.0)
-                .totalReviews(totalReviews != null ? totalReviews : 0L)
-                .ratingDistribution(ratingDistribution)
-                .build();
+        return ids.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -95,7 +175,8 @@ public class ReviewService {
         Review saved = reviewRepository.save(review);
 
         // Update product rating
-        updateProductRating(product);
+        updateProductRating(product.getId(), saved.getRating(), 0);
+        reviewSearchIndex.onReviewSaved(product.getId(), saved.getId(), saved.getTitle(), saved.getComment());
 
         return toDTO(saved);
     }
@@ -109,6 +190,7 @@ public class ReviewService {
             throw new BadRequestException("You can only edit your own reviews");
         }
 
+        int previousRating = review.getRating();
         review.setRating(request.getRating());
         review.setTitle(request.getTitle());
         review.setComment(request.getComment());
@@ -116,7 +198,10 @@ public class ReviewService {
         Review saved = reviewRepository.save(review);
 
         // Update product rating
-        updateProductRating(review.getProduct());
+        if (previousRating != saved.getRating()) {
+            updateProductRating(review.getProduct().getId(), saved.getRating(), previousRating);
+        }
+        reviewSearchIndex.onReviewSaved(review.getProduct().getId(), saved.getId(), saved.getTitle(), saved.getComment());
 
         return toDTO(saved);
     }
@@ -130,35 +215,151 @@ public class ReviewService {
             throw new BadRequestException("You can only delete your own reviews");
         }
 
-        Product product = review.getProduct();
+        Long productId = review.getProduct().getId();
+        int rating = review.getRating();
+        reviewHelpfulVoteRepository.deleteByReviewId(reviewId);
         reviewRepository.delete(review);
 
         // Update product rating
-        updateProductRating(product);
+        updateProductRating(productId, 0, rating);
+        reviewSearchIndex.onReviewDeleted(productId, reviewId);
+    }
+
+    /**
+     * Buffers the vote in memory; {@link com.qkart.job.HelpfulVoteFlushJob} writes it out.
+     * Repeat votes from the same user are ignored.
+     */
+    public void markHelpful(Long reviewId, Long userId) {
+        if (helpfulVoteBuffer.hasVoted(reviewId, userId)) {
+            return;
+        }
+        if (!reviewRepository.existsById(reviewId)) {
+            throw new ResourceNotFoundException("Review not found");
+        }
+        helpfulVoteBuffer.record(reviewId, userId);
     }
 
+    /**
+     * Stores buffered helpful votes and bumps each review's count by the votes actually
+     * stored. Pairs already in review_helpful_votes (a repeat after a restart, or a vote taken
+     * by another node) and votes on reviews deleted since are dropped. Counts go out as one
+     * UPDATE per distinct increment, which in practice is a handful of statements.
+     */
     @Transactional
-    public void markHelpful(Long reviewId) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
+    public void applyHelpfulVotes(Map<Long, List<Long>> votes) {
+        Set<Long> reviewIds = new HashSet<>(reviewRepository.findExistingIds(votes.keySet()));
+        if (reviewIds.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = votes.values().stream().flatMap(List::stream).collect(Collectors.toSet());
 
-        review.setHelpfulCount(review.getHelpfulCount() + 1);
-        reviewRepository.save(review);
+        Map<Long, Set<Long>> stored = new HashMap<>();
+        for (Object[] row : reviewHelpfulVoteRepository.findVotes(reviewIds, userIds)) {
+            stored.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+
+        List<ReviewHelpfulVote> added = new ArrayList<>();
+        Map<Long, Long> deltas = new HashMap<>();
+        votes.forEach((reviewId, voterIds) -> {
+            if (!reviewIds.contains(reviewId)) {
+                return;
+            }
+            Set<Long> alreadyVoted = stored.getOrDefault(reviewId, Set.of());
+            for (Long userId : voterIds) {
+                if (!alreadyVoted.contains(userId)) {
+                    added.add(ReviewHelpfulVote.builder()
+                            .review(reviewRepository.getReferenceById(reviewId))
+                            .user(userRepository.getReferenceById(userId))
+                            .build());
+                    deltas.merge(reviewId, 1L, Long::sum);
+                }
+            }
+        });
+        reviewHelpfulVoteRepository.saveAll(added);
+
+        Map<Long, List<Long>> idsByDelta = deltas.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        idsByDelta.forEach((delta, ids) -> reviewRepository.incrementHelpfulCount(ids, delta.intValue()));
     }
 
-    public List<ReviewDTO> getUserReviews(Long userId) {
-        return reviewRepository.findByUserId(userId).stream()
-                .map(this::toDTO)
+    /**
+     * Reviews of a product containing every word of the query, newest first, with the
+     * matched words marked up in the title and comment.
+     */
+    public ReviewSearchResponse searchProductReviews(Long productId, String query, int limit) {
+        Set<String> terms = ReviewSearchIndex.tokenize(query);
+        List<Long> reviewIds = reviewSearchIndex.search(productId, terms, limit);
+
+        Map<Long, ReviewDTO> reviews = reviewIds.isEmpty() ? Map.of() :
+                reviewRepository.findDTOsByIdIn(reviewIds).stream()
+                        .collect(Collectors.toMap(ReviewDTO::getId, review -> review));
+
+        List<ReviewSearchResponse.Hit> hits = reviewIds.stream()
+                .map(reviews::get)
+                .filter(Objects::nonNull)
+                .map(review -> new ReviewSearchResponse.Hit(review,
+                        ReviewSearchIndex.highlight(review.getTitle(), terms),
+                        ReviewSearchIndex.highlight(review.getComment(), terms)))
                 .collect(Collectors.toList());
+
+        return ReviewSearchResponse.builder()
+                .query(query)
+                .terms(List.copyOf(terms))
+                .hits(hits)
+                .build();
+    }
+
+    public List<ReviewDTO> getUserReviews(Long userId, int limit) {
+        return reviewRepository.findRecentByUserId(userId, PageRequest.of(0, limit));
+    }
+
+    // Adjusts the product's running aggregates in place rather than re-scanning its reviews
+    private void updateProductRating(Long productId, int addedRating, int removedRating) {
+        productRepository.applyRatingChange(productId, addedRating, removedRating);
+        productRepository.refreshRating(productId);
+        catalogVersion.bump();
     }
 
-    private void updateProductRating(Product product) {
-        Double avgRating = reviewRepository.getAverageRatingByProductId(product.getId());
-        Long reviewCount = reviewRepository.getReviewCountByProductId(product.getId());
+    private String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid review cursor");
+        }
+    }
 
-        product.setRating(avgRating != null ? avgRating : 0.0);
-        product.setReviewCount(reviewCount != null ? reviewCount.intValue() : 0);
-        productRepository.save(product);
+    private Long parseCursorId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid review cursor");
+        }
+    }
+
+    private int parseCursorInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid review cursor");
+        }
+    }
+
+    private LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid review cursor");
+        }
     }
 
     private ReviewDTO toDTO(Review review) {
@@ -0,0 +1,106 @@
+package com.qkart.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free buffer of song play events. Request threads claim a slot in a power-of-two ring
+ * with a CAS on the write sequence and store the song id; the flush job is the only reader
+ * and folds the ring into per-song deltas. If the ring is full, plays are counted straight
+ * into an overflow map instead, so a burst never blocks a request or loses a play.
+ */
+@Component
+public class SongPlayBuffer {
+
+    @Value("${albums.plays.buffer-capacity}")
+    private int capacity;
+
+    private AtomicLongArray slots;
+    private int mask;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+    private volatile long readSequence;
+
+    private final ConcurrentHashMap<Long, LongAdder> overflow = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalStateException("albums.plays.buffer-capacity must be a power of two");
+        }
+        slots = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+    }
+
+    public void record(long songId) {
+        recorded.increment();
+        while (true) {
+            long sequence = writeSequence.get();
+            if (sequence - readSequence >= capacity) {
+                overflowed.increment();
+                overflow.computeIfAbsent(songId, id -> new LongAdder()).increment();
+                return;
+            }
+            if (writeSequence.compareAndSet(sequence, sequence + 1)) {
+                // Song ids are positive, so 0 marks a slot that is claimed but not yet written
+                slots.set((int) (sequence & mask), songId);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes every play recorded so far as per-song deltas. Must only be called from one
+     * thread at a time; a slot whose writer hasn't finished is left for the next drain.
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> plays = new HashMap<>();
+        long sequence = readSequence;
+        long end = writeSequence.get();
+        while (sequence < end) {
+            int index = (int) (sequence & mask);
+            long songId = slots.get(index);
+            if (songId == 0) {
+                break;
+            }
+            slots.set(index, 0);
+            plays.merge(songId, 1L, Long::sum);
+            sequence++;
+        }
+        readSequence = sequence;
+
+        overflow.forEach((songId, count) -> {
+            long taken = count.sumThenReset();
+            if (taken > 0) {
+                plays.merge(songId, taken, Long::sum);
+            }
+        });
+        return plays;
+    }
+
+    /**
+     * Puts back plays that could not be written, so they are retried on the next flush.
+     */
+    public void restore(Map<Long, Long> plays) {
+        plays.forEach((songId, count) -> overflow.computeIfAbsent(songId, id -> new LongAdder()).add(count));
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+}
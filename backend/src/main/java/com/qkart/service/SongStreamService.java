@@ -0,0 +1,193 @@
+package com.qkart.service;
+
+import com.qkart.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves song audio from the local media directory, as {@code <songId>.<ext>}. Supports a
+ * single byte range per request, conditional requests on ETag and Last-Modified, and
+ * If-Range. When the connector supports sendfile the transfer is handed to Tomcat, which
+ * sends the file from the page cache without a request thread or a heap buffer; otherwise
+ * the file is written with {@link FileChannel#transferTo}.
+ */
+@Service
+@Slf4j
+public class SongStreamService {
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "mp3", "audio/mpeg",
+            "m4a", "audio/mp4",
+            "ogg", "audio/ogg",
+            "flac", "audio/flac",
+            "wav", "audio/wav");
+
+    // Only single ranges are served; a multi-range request gets the whole file
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${media.songs.directory}")
+    private String mediaDirectory;
+
+    @Value("${media.songs.cache-max-age-seconds}")
+    private long cacheMaxAgeSeconds;
+
+    private Path mediaRoot;
+
+    @PostConstruct
+    void init() {
+        mediaRoot = Path.of(mediaDirectory).toAbsolutePath().normalize();
+    }
+
+    public void stream(Long songId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // The media file is the source of truth here; no database lookup on the streaming path
+        MediaFile file = findMediaFile(songId);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, file.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + cacheMaxAgeSeconds);
+
+        if (isNotModified(request, file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = file.length() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request, file)) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            if (matcher.matches()) {
+                long[] bounds = resolveRange(matcher.group(1), matcher.group(2), file.length());
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length());
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.length());
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(file.contentType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    private MediaFile findMediaFile(Long songId) throws IOException {
+        for (Map.Entry<String, String> type : CONTENT_TYPES.entrySet()) {
+            Path path = mediaRoot.resolve(songId + "." + type.getKey());
+            if (Files.isRegularFile(path)) {
+                long length = Files.size(path);
+                // HTTP dates have second precision; truncate so If-Modified-Since compares equal
+                long lastModified = Files.getLastModifiedTime(path).toMillis() / 1000 * 1000;
+                String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+                return new MediaFile(path, length, lastModified, etag, type.getValue());
+            }
+        }
+        throw new ResourceNotFoundException("Audio not available for this song");
+    }
+
+    private boolean isNotModified(HttpServletRequest request, MediaFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(file.etag());
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && file.lastModified() <= ifModifiedSince;
+    }
+
+    // If-Range: serve the range only if the client's copy is still current
+    private boolean isRangeApplicable(HttpServletRequest request, MediaFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(file.etag());
+        }
+        long date = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return date != -1 && file.lastModified() <= date;
+    }
+
+    /**
+     * Returns [start, end] (inclusive) for a "bytes=first-last" spec, or null if it can't be satisfied.
+     */
+    private static long[] resolveRange(String first, String last, long length) {
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                return suffix == 0 || length == 0 ? null : new long[]{Math.max(0, length - suffix), length - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            return start >= length || end < start ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private record MediaFile(Path path, long length, long lastModified, String etag, String contentType) {}
+}
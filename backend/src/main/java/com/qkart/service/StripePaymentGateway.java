@@ -0,0 +1,71 @@
+package com.qkart.service;
+
+import com.qkart.exception.BadRequestException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "stripe", matchIfMissing = true)
+@Slf4j
+public class StripePaymentGateway implements PaymentGateway {
+
+    @Value("${payments.gateway.connect-timeout-ms}")
+    private int connectTimeoutMs;
+
+    @Value("${payments.gateway.read-timeout-ms}")
+    private int readTimeoutMs;
+
+    private RequestOptions requestOptions;
+
+    @PostConstruct
+    void init() {
+        // Built per call by the SDK otherwise; the API key is still read from Stripe.apiKey
+        requestOptions = RequestOptions.builder()
+                .setConnectTimeout(connectTimeoutMs)
+                .setReadTimeout(readTimeoutMs)
+                .build();
+    }
+
+    @Override
+    public CreatedIntent createPaymentIntent(IntentRequest request) {
+        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                .setAmount(request.amountInCents())
+                .setCurrency(request.currency())
+                .setAutomaticPaymentMethods(
+                        PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
+                                .setEnabled(true)
+                                .build()
+                )
+                .putAllMetadata(request.metadata())
+                .build();
+
+        try {
+            PaymentIntent paymentIntent = PaymentIntent.create(params, requestOptions);
+            return new CreatedIntent(paymentIntent.getId(), paymentIntent.getClientSecret());
+        } catch (StripeException e) {
+            log.error("Stripe error creating payment intent: {}", e.getMessage());
+            throw new BadRequestException("Failed to create payment: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public IntentState retrievePaymentIntent(String intentId) {
+        try {
+            PaymentIntent paymentIntent = PaymentIntent.retrieve(intentId, requestOptions);
+            return new IntentState(
+                    paymentIntent.getId(),
+                    paymentIntent.getStatus(),
+                    paymentIntent.getPaymentMethod(),
+                    paymentIntent.getLastPaymentError() != null ? paymentIntent.getLastPaymentError().getMessage() : null);
+        } catch (StripeException e) {
+            throw new IllegalStateException("Stripe error retrieving payment intent " + intentId + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.qkart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonSyntaxException;
+import com.qkart.config.StripeConfig;
+import com.qkart.exception.BadRequestException;
+import com.qkart.model.StripeWebhookEvent;
+import com.qkart.repository.StripeWebhookEventRepository;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+import com.stripe.net.Webhook;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Stripe webhook intake. The endpoint only verifies the signature and stores the event;
+ * {@link com.qkart.job.StripeWebhookProcessor} applies stored events in batches. Events are
+ * keyed by their Stripe id, so a redelivery is acknowledged without being stored twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final PaymentService paymentService;
+    private final StripeConfig stripeConfig;
+    private final ObjectMapper objectMapper;
+
+    @Value("${payments.webhook.max-attempts}")
+    private int maxAttempts;
+
+    /**
+     * Verifies and stores an event. Returns false if the event had already been received.
+     */
+    public boolean ingest(String payload, String signature) {
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, signature, stripeConfig.getWebhookSecret());
+        } catch (SignatureVerificationException e) {
+            log.error("Webhook signature verification failed: {}", e.getMessage());
+            throw new BadRequestException("Invalid webhook signature");
+        } catch (JsonSyntaxException e) {
+            throw new BadRequestException("Malformed webhook payload");
+        }
+
+        if (webhookEventRepository.existsByEventId(event.getId())) {
+            log.info("Ignoring duplicate Stripe webhook event {}", event.getId());
+            return false;
+        }
+
+        StripeWebhookEvent webhookEvent = StripeWebhookEvent.builder()
+                .eventId(event.getId())
+                .type(event.getType())
+                .objectId(extractObjectId(event))
+                .payload(payload)
+                .build();
+
+        // The unique event id also covers concurrent redeliveries that both pass the check above
+        try {
+            webhookEventRepository.saveAndFlush(webhookEvent);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Ignoring duplicate Stripe webhook event {}", event.getId());
+            return false;
+        }
+
+        log.info("Queued Stripe webhook event {} ({})", event.getId(), event.getType());
+        return true;
+    }
+
+    /**
+     * Applies a batch of queued events in one transaction. Rows are locked first, so an
+     * event already handled by another worker or node is skipped.
+     */
+    @Transactional
+    public void processBatch(Collection<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        for (StripeWebhookEvent webhookEvent : webhookEventRepository.findAllByIdForUpdate(ids)) {
+            if (webhookEvent.getStatus() != StripeWebhookEvent.Status.RECEIVED) {
+                continue;
+            }
+
+            Event event = ApiResource.GSON.fromJson(webhookEvent.getPayload(), Event.class);
+            paymentService.applyWebhookEvent(event);
+
+            webhookEvent.setStatus(StripeWebhookEvent.Status.PROCESSED);
+            webhookEvent.setAttempts(webhookEvent.getAttempts() + 1);
+            webhookEvent.setProcessedAt(now);
+        }
+    }
+
+    /**
+     * Counts a failed attempt; the event is queued again until it runs out of attempts.
+     */
+    @Transactional
+    public void recordFailure(Long id, Exception failure) {
+        webhookEventRepository.findById(id).ifPresent(webhookEvent -> {
+            int attempts = webhookEvent.getAttempts() + 1;
+            String message = String.valueOf(failure.getMessage());
+
+            webhookEvent.setAttempts(attempts);
+            webhookEvent.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            if (attempts >= maxAttempts) {
+                webhookEvent.setStatus(StripeWebhookEvent.Status.FAILED);
+                log.error("Stripe webhook event {} failed after {} attempts", webhookEvent.getEventId(), attempts);
+            }
+        });
+    }
+
+    private String extractObjectId(Event event) {
+        try {
+            return objectMapper.readTree(event.getDataObjectDeserializer().getRawJson()).path("id").asText(null);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed webhook payload");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.qkart.service;
+
+import com.qkart.exception.BadRequestException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Trending songs and albums over the last hour, day and week. Each window keeps a current
+ * and a previous bucket, and each bucket is a count-min sketch plus its top-K candidates,
+ * so memory is fixed no matter how large the catalog is. Scores are the current bucket
+ * plus the previous one, weighted by how much of it still overlaps the sliding window.
+ */
+@Component
+public class TrendingTracker {
+
+    public enum Window {
+        HOUR(Duration.ofHours(1)),
+        DAY(Duration.ofDays(1)),
+        WEEK(Duration.ofDays(7));
+
+        private final long millis;
+
+        Window(Duration length) {
+            this.millis = length.toMillis();
+        }
+
+        public static Window from(String value) {
+            try {
+                return valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown trending window: " + value);
+            }
+        }
+    }
+
+    @Value("${albums.trending.sketch-depth}")
+    private int sketchDepth;
+
+    @Value("${albums.trending.sketch-width}")
+    private int sketchWidth;
+
+    @Value("${albums.trending.top-k}")
+    private int topK;
+
+    private final Map<Window, WindowCounter> songs = new EnumMap<>(Window.class);
+    private final Map<Window, WindowCounter> albums = new EnumMap<>(Window.class);
+
+    @PostConstruct
+    void init() {
+        for (Window window : Window.values()) {
+            songs.put(window, new WindowCounter(window.millis));
+            albums.put(window, new WindowCounter(window.millis));
+        }
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void recordSongs(Map<Long, Long> counts) {
+        record(songs, counts);
+    }
+
+    public void recordAlbums(Map<Long, Long> counts) {
+        record(albums, counts);
+    }
+
+    /**
+     * Song ids ranked by trending score, highest first.
+     */
+    public List<Long> topSongs(Window window, int limit) {
+        return songs.get(window).top(limit, System.currentTimeMillis());
+    }
+
+    public List<Long> topAlbums(Window window, int limit) {
+        return albums.get(window).top(limit, System.currentTimeMillis());
+    }
+
+    private void record(Map<Window, WindowCounter> counters, Map<Long, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        counters.values().forEach(counter -> counter.add(counts, now));
+    }
+
+    private final class WindowCounter {
+
+        private final long bucketMillis;
+        private Bucket current = new Bucket();
+        private Bucket previous = new Bucket();
+        private long currentIndex;
+
+        private WindowCounter(long bucketMillis) {
+            this.bucketMillis = bucketMillis;
+        }
+
+        synchronized void add(Map<Long, Long> counts, long now) {
+            advance(now);
+            counts.forEach(current::add);
+        }
+
+        synchronized List<Long> top(int limit, long now) {
+            advance(now);
+            double previousWeight = 1.0 - (double) (now % bucketMillis) / bucketMillis;
+
+            Set<Long> ids = new HashSet<>(current.candidates.keySet());
+            ids.addAll(previous.candidates.keySet());
+            Map<Long, Double> scores = new HashMap<>();
+            for (Long id : ids) {
+                double score = current.sketch.estimate(id) + previous.sketch.estimate(id) * previousWeight;
+                if (score > 0) {
+                    scores.put(id, score);
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        // Rotates buckets in place, reusing their arrays, when the clock crosses a boundary
+        private void advance(long now) {
+            long index = now / bucketMillis;
+            if (index == currentIndex) {
+                return;
+            }
+            Bucket stale = previous;
+            stale.clear();
+            if (index == currentIndex + 1) {
+                previous = current;
+                current = stale;
+            } else {
+                current.clear();
+            }
+            currentIndex = index;
+        }
+    }
+
+    private final class Bucket {
+
+        private final CountMinSketch sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        private final Map<Long, Long> candidates = new HashMap<>();
+        // Lower bound on the smallest candidate estimate; estimates only grow
+        private long minCandidate;
+
+        void add(Long id, Long count) {
+            long estimate = sketch.add(id, count);
+            if (candidates.containsKey(id) || candidates.size() < topK) {
+                candidates.put(id, estimate);
+                return;
+            }
+            if (estimate <= minCandidate) {
+                return;
+            }
+
+            Long weakest = null;
+            long weakestEstimate = Long.MAX_VALUE;
+            for (Map.Entry<Long, Long> candidate : candidates.entrySet()) {
+                if (candidate.getValue() < weakestEstimate) {
+                    weakest = candidate.getKey();
+                    weakestEstimate = candidate.getValue();
+                }
+            }
+            if (estimate > weakestEstimate) {
+                candidates.remove(weakest);
+                candidates.put(id, estimate);
+                weakestEstimate = candidates.values().stream().mapToLong(Long::longValue).min().orElse(0);
+            }
+            minCandidate = weakestEstimate;
+        }
+
+        void clear() {
+            sketch.clear();
+            candidates.clear();
+            minCandidate = 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.qkart.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe set of user ids stored as bits. Ids are split into chunks of 4096, and a chunk
+ * (512 bytes) is only allocated once one of its ids is added, so sparse sets stay small.
+ * Updates are lock-free compare-and-set operations on single words.
+ */
+class UserIdBitmap {
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int WORDS_PER_CHUNK = (1 << CHUNK_SHIFT) / Long.SIZE;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> chunks = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the id. Returns false if it was already present.
+     */
+    boolean add(long id) {
+        AtomicLongArray words = chunks.computeIfAbsent(id >>> CHUNK_SHIFT, chunk -> new AtomicLongArray(WORDS_PER_CHUNK));
+        int word = wordIndex(id);
+        long bit = bit(id);
+        while (true) {
+            long current = words.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the id. Returns false if it was not present. Emptied chunks are kept.
+     */
+    boolean remove(long id) {
+        AtomicLongArray words = chunks.get(id >>> CHUNK_SHIFT);
+        if (words == null) {
+            return false;
+        }
+        int word = wordIndex(id);
+        long bit = bit(id);
+        while (true) {
+            long current = words.get(word);
+            if ((current & bit) == 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    boolean contains(long id) {
+        AtomicLongArray words = chunks.get(id >>> CHUNK_SHIFT);
+        return words != null && (words.get(wordIndex(id)) & bit(id)) != 0;
+    }
+
+    private static int wordIndex(long id) {
+        return (int) (id & CHUNK_MASK) >>> 6;
+    }
+
+    private static long bit(long id) {
+        return 1L << (id & 63);
+    }
+}
@@ -1,6 +1,7 @@
 package com.qkart.service;
 
 import com.qkart.dto.AddressDTO;
+import com.qkart.dto.UserDTO;
 import com.qkart.model.Address;
 import com.qkart.model.User;
 import com.qkart.repository.AddressRepository;
@@ -24,6 +25,22 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    @Transactional(readOnly = true)
+    public UserDTO getUserProfile(Long id) {
+        User user = getUserById(id);
+        return UserDTO.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .phone(user.getPhone())
+                .profileImageUrl(user.getProfileImageUrl())
+                .role(user.getRole().name())
+                .emailVerified(user.isEmailVerified())
+                .createdAt(user.getCreatedAt())
+                .addresses(getUserAddresses(id))
+                .build();
+    }
+
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));